@@ -0,0 +1,98 @@
+package com.potsandplots.benchmark;
+
+import com.potsandplots.PotsAndPlotsApplication;
+import com.potsandplots.model.Area;
+import com.potsandplots.model.Plant;
+import com.potsandplots.model.Plot;
+import com.potsandplots.repository.AreaRepository;
+import com.potsandplots.repository.PlantRepository;
+import com.potsandplots.repository.PlotRepository;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A scalable version of DataInitializer: boots the application on the "bench"
+ * profile and fills it with the requested number of plants. Plants are spread
+ * over ten areas and packed into 100 x 100 plots, so every plot but the last is
+ * full and each area holds a tenth of the plants.
+ */
+public class BenchmarkDataset {
+
+    static final int AREAS = 10;
+    static final int PLOT_SIDE = 100;
+
+    private static final int CHUNK_SIZE = 10_000;
+
+    private final ConfigurableApplicationContext context;
+    private final List<Long> areaIds = new ArrayList<>();
+    private final List<Long> plotIds = new ArrayList<>();
+
+    private BenchmarkDataset(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    /**
+     * The args are passed to the application as command-line arguments, so they
+     * override anything the bench profile sets (e.g. "--spring.jpa.show-sql=true").
+     */
+    public static BenchmarkDataset create(int plantCount, String... args) {
+        SpringApplication application = new SpringApplication(PotsAndPlotsApplication.class);
+        application.setAdditionalProfiles("bench");
+        BenchmarkDataset dataset = new BenchmarkDataset(application.run(args));
+        dataset.seed(plantCount);
+        return dataset;
+    }
+
+    private void seed(int plantCount) {
+        AreaRepository areaRepository = getBean(AreaRepository.class);
+        PlotRepository plotRepository = getBean(PlotRepository.class);
+        PlantRepository plantRepository = getBean(PlantRepository.class);
+
+        for (int a = 0; a < AREAS; a++) {
+            areaIds.add(areaRepository.save(new Area("Bench Area " + a, "outdoor", false, false, "high")).getId());
+        }
+        int cellsPerPlot = PLOT_SIDE * PLOT_SIDE;
+        int plotCount = (plantCount + cellsPerPlot - 1) / cellsPerPlot;
+        for (int p = 0; p < plotCount; p++) {
+            Plot plot = new Plot("Bench Plot " + p, areaIds.get(p % AREAS), "raised_bed", PLOT_SIDE, PLOT_SIDE);
+            plotIds.add(plotRepository.save(plot).getId());
+        }
+
+        List<Plant> chunk = new ArrayList<>(CHUNK_SIZE);
+        for (int i = 0; i < plantCount; i++) {
+            int plotIndex = i / cellsPerPlot;
+            int cell = i % cellsPerPlot;
+            Plant plant = new Plant("Bench Plant " + i, 1L, areaIds.get(plotIndex % AREAS));
+            plant.setPlotId(plotIds.get(plotIndex));
+            plant.setPositionX(cell % PLOT_SIDE);
+            plant.setPositionY(cell / PLOT_SIDE);
+            plant.setWateringSchedule("weekly");
+            chunk.add(plant);
+            if (chunk.size() == CHUNK_SIZE) {
+                plantRepository.saveAll(chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            plantRepository.saveAll(chunk);
+        }
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public Long firstAreaId() {
+        return areaIds.get(0);
+    }
+
+    public Long firstPlotId() {
+        return plotIds.get(0);
+    }
+
+    public void close() {
+        context.close();
+    }
+}
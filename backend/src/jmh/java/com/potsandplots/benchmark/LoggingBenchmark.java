@@ -0,0 +1,105 @@
+package com.potsandplots.benchmark;
+
+import com.potsandplots.controller.PlantController;
+import com.potsandplots.model.Plant;
+import com.potsandplots.model.Plot;
+import com.potsandplots.repository.PlantRepository;
+import com.potsandplots.repository.PlotRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a read and a move from eight threads with the old logging setup
+ * (show-sql and format_sql echoing every statement to stdout, controller logging
+ * on) against the current one (SQL sampled through the com.potsandplots.sql debug
+ * category). Stdout goes to a temporary file so the terminal doesn't set the pace.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class LoggingBenchmark {
+
+    private static final int PLANT_COUNT = 10_000;
+
+    @Param({"show-sql", "sampled-debug"})
+    public String sqlEcho;
+
+    private BenchmarkDataset dataset;
+    private PlantRepository plantRepository;
+    private PlantController plantController;
+    private PrintStream originalOut;
+    private PrintStream capturedOut;
+    private File capturedFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        originalOut = System.out;
+        capturedFile = File.createTempFile("logging-benchmark", ".log");
+        capturedOut = new PrintStream(new FileOutputStream(capturedFile), true);
+        System.setOut(capturedOut);
+
+        if (sqlEcho.equals("show-sql")) {
+            dataset = BenchmarkDataset.create(PLANT_COUNT,
+                    "--spring.jpa.show-sql=true",
+                    "--spring.jpa.properties.hibernate.format_sql=true",
+                    "--logging.level.com.potsandplots=DEBUG");
+        } else {
+            dataset = BenchmarkDataset.create(PLANT_COUNT,
+                    "--logging.level.com.potsandplots.sql=DEBUG",
+                    "--potsandplots.logging.sql-sample-every=100");
+        }
+        plantRepository = dataset.getBean(PlantRepository.class);
+        plantController = dataset.getBean(PlantController.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataset.close();
+        System.setOut(originalOut);
+        capturedOut.close();
+        capturedFile.delete();
+    }
+
+    /** A plant of its own per benchmark thread, shuttled across a two-cell plot. */
+    @State(Scope.Thread)
+    public static class MovingPlant {
+        Long plantId;
+        Long plotId;
+        int targetX;
+
+        @Setup(Level.Trial)
+        public void setUp(LoggingBenchmark benchmark) {
+            Long areaId = benchmark.dataset.firstAreaId();
+            Plot plot = new Plot("Logging Bench Plot", areaId, "pot", 2, 1);
+            plotId = benchmark.dataset.getBean(PlotRepository.class).save(plot).getId();
+            Plant plant = new Plant("Logging Bench Plant", 1L, areaId);
+            plant.setPlotId(plotId);
+            plant.setPositionX(0);
+            plant.setPositionY(0);
+            plantId = benchmark.plantRepository.save(plant).getId();
+        }
+    }
+
+    @Benchmark
+    public Object findPlantsInPlot(MovingPlant moving) {
+        return plantRepository.findByPlotId(moving.plotId);
+    }
+
+    @Benchmark
+    public ResponseEntity<Plant> movePlant(MovingPlant moving) {
+        moving.targetX = 1 - moving.targetX;
+        Map<String, Object> moveData = new HashMap<>();
+        moveData.put("plotId", moving.plotId);
+        moveData.put("positionX", moving.targetX);
+        moveData.put("positionY", 0);
+        return plantController.movePlant(moving.plantId, moveData);
+    }
+}
@@ -0,0 +1,82 @@
+package com.potsandplots.benchmark;
+
+import com.potsandplots.controller.PlantController;
+import com.potsandplots.dto.PlantCreateRequest;
+import com.potsandplots.model.Plant;
+import com.potsandplots.model.Plot;
+import com.potsandplots.repository.PlantRepository;
+import com.potsandplots.repository.PlotRepository;
+import com.potsandplots.service.PositionConflictException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The position conflict check behind PlantController.createPlant and movePlant,
+ * called on the controller bean directly so the HTTP layer is left out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PlantPlacementBenchmark {
+
+    @Param({"100", "1000", "10000", "100000", "1000000"})
+    public int plantCount;
+
+    private BenchmarkDataset dataset;
+    private PlantController plantController;
+    private PlantCreateRequest occupiedCellRequest;
+    private Long movingPlantId;
+    private Long movePlotId;
+    private int moveTargetX;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataset = BenchmarkDataset.create(plantCount);
+        plantController = dataset.getBean(PlantController.class);
+
+        // Cell (0, 0) of the first seeded plot is always taken
+        occupiedCellRequest = new PlantCreateRequest();
+        occupiedCellRequest.setName("Conflicting Plant");
+        occupiedCellRequest.setSpeciesId(1L);
+        occupiedCellRequest.setAreaId(dataset.firstAreaId());
+        occupiedCellRequest.setPlotId(dataset.firstPlotId());
+        occupiedCellRequest.setPositionX(0);
+        occupiedCellRequest.setPositionY(0);
+
+        // A two-cell plot the move benchmark shuttles one plant across
+        Plot movePlot = new Plot("Bench Move Plot", dataset.firstAreaId(), "pot", 2, 1);
+        movePlotId = dataset.getBean(PlotRepository.class).save(movePlot).getId();
+        Plant movingPlant = new Plant("Moving Plant", 1L, dataset.firstAreaId());
+        movingPlant.setPlotId(movePlotId);
+        movingPlant.setPositionX(0);
+        movingPlant.setPositionY(0);
+        movingPlantId = dataset.getBean(PlantRepository.class).save(movingPlant).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataset.close();
+    }
+
+    @Benchmark
+    public Object createAtOccupiedCell() {
+        try {
+            return plantController.createPlant(occupiedCellRequest);
+        } catch (PositionConflictException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<Plant> moveToFreeCell() {
+        moveTargetX = 1 - moveTargetX;
+        Map<String, Object> moveData = new HashMap<>();
+        moveData.put("plotId", movePlotId);
+        moveData.put("positionX", moveTargetX);
+        moveData.put("positionY", 0);
+        return plantController.movePlant(movingPlantId, moveData);
+    }
+}
@@ -0,0 +1,48 @@
+package com.potsandplots.benchmark;
+
+import com.potsandplots.model.Plant;
+import com.potsandplots.repository.PlantRepository;
+import org.openjdk.jmh.annotations.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The derived queries on PlantRepository that the controllers lean on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PlantQueryBenchmark {
+
+    @Param({"100", "1000", "10000", "100000", "1000000"})
+    public int plantCount;
+
+    private BenchmarkDataset dataset;
+    private PlantRepository plantRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataset = BenchmarkDataset.create(plantCount);
+        plantRepository = dataset.getBean(PlantRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataset.close();
+    }
+
+    @Benchmark
+    public List<Plant> findByAreaId() {
+        return plantRepository.findByAreaId(dataset.firstAreaId());
+    }
+
+    @Benchmark
+    public List<Plant> findByPlotId() {
+        return plantRepository.findByPlotId(dataset.firstPlotId());
+    }
+
+    @Benchmark
+    public List<Plant> findByAreaIdAndPosition() {
+        return plantRepository.findByAreaIdAndPositionXAndPositionY(dataset.firstAreaId(), 0, 0);
+    }
+}
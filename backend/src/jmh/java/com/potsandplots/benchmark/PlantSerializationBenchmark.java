@@ -0,0 +1,48 @@
+package com.potsandplots.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.potsandplots.model.Plant;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of plant lists, configured the way Spring MVC configures
+ * its ObjectMapper. Needs no database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PlantSerializationBenchmark {
+
+    @Param({"100", "1000", "10000", "100000", "1000000"})
+    public int plantCount;
+
+    private ObjectMapper objectMapper;
+    private List<Plant> plants;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        plants = new ArrayList<>(plantCount);
+        for (int i = 0; i < plantCount; i++) {
+            Plant plant = new Plant("Bench Plant " + i, 1L, (long) (i % BenchmarkDataset.AREAS));
+            plant.setId((long) i);
+            plant.setPlotId((long) (i / (BenchmarkDataset.PLOT_SIDE * BenchmarkDataset.PLOT_SIDE)));
+            plant.setPositionX(i % BenchmarkDataset.PLOT_SIDE);
+            plant.setPositionY(i / BenchmarkDataset.PLOT_SIDE % BenchmarkDataset.PLOT_SIDE);
+            plant.setPlantedDate(LocalDate.of(2024, 4, 1));
+            plant.setWateringSchedule("weekly");
+            plant.setVersion(0L);
+            plants.add(plant);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializePlantList() throws Exception {
+        return objectMapper.writeValueAsBytes(plants);
+    }
+}
@@ -0,0 +1,52 @@
+package com.potsandplots.benchmark;
+
+import com.potsandplots.dto.SearchHit;
+import com.potsandplots.service.SearchIndex;
+import org.openjdk.jmh.annotations.*;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SearchIndex queries of the kinds /api/search sees: an exact name, a prefix
+ * typed so far, and a misspelling.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int plantCount;
+
+    private BenchmarkDataset dataset;
+    private SearchIndex searchIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataset = BenchmarkDataset.create(plantCount);
+        searchIndex = dataset.getBean(SearchIndex.class);
+        // The dataset is seeded after startup, so index it again
+        searchIndex.rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataset.close();
+    }
+
+    @Benchmark
+    public List<SearchHit> exactName() throws IOException {
+        return searchIndex.search("bench plant 4242", null, 20);
+    }
+
+    @Benchmark
+    public List<SearchHit> prefix() throws IOException {
+        return searchIndex.search("bench pla 42", null, 20);
+    }
+
+    @Benchmark
+    public List<SearchHit> misspelt() throws IOException {
+        return searchIndex.search("bnech plnat", null, 20);
+    }
+}
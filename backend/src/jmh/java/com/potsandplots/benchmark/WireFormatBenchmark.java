@@ -0,0 +1,74 @@
+package com.potsandplots.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.potsandplots.model.Plant;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The cost of each way /api/plants can put a plant list on the wire: plain JSON,
+ * JSON gzipped as server.compression does it, Smile and CBOR. The time is the
+ * serialization (and compression) CPU; the bytes on the wire for each format are
+ * printed once per trial. Needs no database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class WireFormatBenchmark {
+
+    @Param({"json", "json-gzip", "smile", "cbor"})
+    public String format;
+
+    @Param({"100000"})
+    public int plantCount;
+
+    private ObjectMapper objectMapper;
+    private boolean gzip;
+    private List<Plant> plants;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = switch (format) {
+            case "smile" -> Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        gzip = format.equals("json-gzip");
+        plants = new ArrayList<>(plantCount);
+        for (int i = 0; i < plantCount; i++) {
+            Plant plant = new Plant("Bench Plant " + i, 1L + i % 7, (long) (i % BenchmarkDataset.AREAS));
+            plant.setId((long) i);
+            plant.setPlotId((long) (i / (BenchmarkDataset.PLOT_SIDE * BenchmarkDataset.PLOT_SIDE)));
+            plant.setPositionX(i % BenchmarkDataset.PLOT_SIDE);
+            plant.setPositionY(i / BenchmarkDataset.PLOT_SIDE % BenchmarkDataset.PLOT_SIDE);
+            plant.setPlantedDate(LocalDate.of(2024, 4, 1));
+            plant.setWateringSchedule("weekly");
+            plant.setHealthStatus("healthy");
+            plant.setNotes(i % 3 == 0 ? "Sown indoors in March and hardened off over two weeks before planting out" : null);
+            plant.setVersion(0L);
+            plants.add(plant);
+        }
+        System.out.printf("%n%s: %,d bytes for %,d plants%n", format, serialize().length, plantCount);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        if (!gzip) {
+            return objectMapper.writeValueAsBytes(plants);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, plants);
+        }
+        return bytes.toByteArray();
+    }
+}
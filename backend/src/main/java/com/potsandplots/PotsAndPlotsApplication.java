@@ -2,13 +2,19 @@ package com.potsandplots;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.web.bind.annotation.CrossOrigin;
 
 @SpringBootApplication
 @CrossOrigin(origins = "http://localhost:3000")
 public class PotsAndPlotsApplication {
 
+    // Enough for every step of a normal start; later steps are dropped rather than buffered
+    private static final int STARTUP_STEP_CAPACITY = 4096;
+
     public static void main(String[] args) {
-        SpringApplication.run(PotsAndPlotsApplication.class, args);
+        SpringApplication application = new SpringApplication(PotsAndPlotsApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+        application.run(args);
     }
 }
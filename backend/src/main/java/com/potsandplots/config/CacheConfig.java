@@ -0,0 +1,53 @@
+package com.potsandplots.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig implements CachingConfigurer {
+
+    public static final String AREAS = "areas";
+    public static final String PLANT_TYPES = "plantTypes";
+    public static final String PLOT_RANKINGS = "plotRankings";
+
+    @Bean
+    @Override
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(1_000)
+                .expireAfterWrite(Duration.ofMinutes(30))
+                .recordStats());
+        // Declare the caches up front so Actuator registers their hit/miss meters at startup
+        cacheManager.setCacheNames(List.of(AREAS, PLANT_TYPES, PLOT_RANKINGS));
+        // Evictions issued inside a transaction only apply once it commits, so a concurrent
+        // reader can't re-populate the cache with rows that are about to change
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    /**
+     * Keys every cached call by the current garden as well as its arguments, so
+     * gardens never see each other's entries. Evicting all entries still clears
+     * every garden's, which is coarser than needed but never stale.
+     */
+    @Override
+    public KeyGenerator keyGenerator() {
+        return (target, method, params) -> keyFor(GardenContext.current(), params);
+    }
+
+    public static Object keyFor(String gardenId, Object... params) {
+        return new SimpleKey(gardenId, SimpleKeyGenerator.generateKey(params));
+    }
+}
@@ -2,14 +2,19 @@ package com.potsandplots.config;
 
 import com.potsandplots.model.*;
 import com.potsandplots.repository.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.time.LocalDate;
 
 @Component
 public class DataInitializer implements CommandLineRunner {
     
+    private static final Logger log = LoggerFactory.getLogger(DataInitializer.class);
+    
     @Autowired
     private AreaRepository areaRepository;
     
@@ -22,9 +27,21 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private PlantRepository plantRepository;
     
+    @Autowired
+    private PlantTypeRelationRepository plantTypeRelationRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
     @Override
     public void run(String... args) throws Exception {
-        initializeData();
+        // A persistent database keeps its data between runs, so only seed an empty one.
+        // Seeding in one transaction means a failed run never leaves half the sample data behind.
+        if (areaRepository.count() > 0 || plantTypeRepository.count() > 0) {
+            log.info("Existing data found, skipping sample data initialization");
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> initializeData());
     }
     
     private void initializeData() {
@@ -57,6 +74,7 @@ public class DataInitializer implements CommandLineRunner {
         tomato.setWaterRequirements("regular, deep watering");
         tomato.setSoilRequirements("rich, well-draining");
         tomato.setImageUrl("https://example.com/tomato.jpg");
+        tomato.setSpacing(1);
         
         PlantType basil = new PlantType("Basil", "Ocimum basilicum", true);
         basil.setLightRequirements("full sun");
@@ -69,6 +87,7 @@ public class DataInitializer implements CommandLineRunner {
         rosemary.setWaterRequirements("infrequent, drought tolerant");
         rosemary.setSoilRequirements("well-draining, sandy");
         rosemary.setImageUrl("https://example.com/rosemary.jpg");
+        rosemary.setSpacing(1);
         
         PlantType spider = new PlantType("Spider Plant", "Chlorophytum comosum", false);
         spider.setLightRequirements("bright, indirect light");
@@ -102,6 +121,11 @@ public class DataInitializer implements CommandLineRunner {
         plantTypeRepository.save(mint);
         plantTypeRepository.save(lavender);
         
+        // Planting rules used by auto-layout
+        plantTypeRelationRepository.save(new PlantTypeRelation(tomato.getId(), basil.getId(), PlantTypeRelation.COMPANION));
+        plantTypeRelationRepository.save(new PlantTypeRelation(rosemary.getId(), lavender.getId(), PlantTypeRelation.COMPANION));
+        plantTypeRelationRepository.save(new PlantTypeRelation(mint.getId(), rosemary.getId(), PlantTypeRelation.ANTAGONIST));
+        
         // Create Plants
         Plant tomatoPlant1 = new Plant("Cherry Tom", tomato.getId(), frontGarden.getId());
         tomatoPlant1.setPlotId(tomatoBed.getId());
@@ -143,6 +167,6 @@ public class DataInitializer implements CommandLineRunner {
         plantRepository.save(spiderPlant);
         plantRepository.save(pothosPlant);
         
-        System.out.println("Sample data initialized successfully!");
+        log.info("Sample data initialized");
     }
 }
@@ -0,0 +1,55 @@
+package com.potsandplots.config;
+
+import java.util.function.Supplier;
+
+/**
+ * The garden (tenant) the current thread is working for. GardenFilter sets it
+ * for each request; Hibernate reads it through GardenTenantResolver to scope
+ * every query and insert. Threads that were not handed a garden, such as
+ * startup and background jobs, work in {@value #DEFAULT}.
+ */
+public final class GardenContext {
+
+    public static final String DEFAULT = "default";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private GardenContext() {}
+
+    public static String current() {
+        String gardenId = CURRENT.get();
+        return gardenId != null ? gardenId : DEFAULT;
+    }
+
+    public static void set(String gardenId) {
+        CURRENT.set(gardenId);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Runs the task in the given garden and then restores the thread's previous one.
+     */
+    public static <T> T callIn(String gardenId, Supplier<T> task) {
+        String previous = CURRENT.get();
+        CURRENT.set(gardenId);
+        try {
+            return task.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    public static void runIn(String gardenId, Runnable task) {
+        callIn(gardenId, () -> {
+            task.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,53 @@
+package com.potsandplots.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Puts each request in the garden named by its X-Garden-Id header, or by a
+ * {@code garden} query parameter on GETs (EventSource can't set headers).
+ * Requests that name no garden work in {@link GardenContext#DEFAULT}; one that
+ * names an invalid garden is rejected rather than served from another.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class GardenFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Garden-Id";
+    public static final String PARAM = "garden";
+
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String gardenId = request.getHeader(HEADER);
+        if (gardenId == null && HttpMethod.GET.matches(request.getMethod())) {
+            gardenId = request.getParameter(PARAM);
+        }
+        if (gardenId == null) {
+            gardenId = GardenContext.DEFAULT;
+        } else if (!VALID_ID.matcher(gardenId).matches()) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid " + HEADER);
+            return;
+        }
+        // Responses differ by garden, so caches must key on the header as well
+        response.addHeader(HttpHeaders.VARY, HEADER);
+        GardenContext.set(gardenId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            GardenContext.clear();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.potsandplots.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Web slices in tests run without a registry; there is nothing to record into then
+        meterRegistry.ifAvailable(meters -> registry.addInterceptor(new RequestMetricsInterceptor(meters))
+                .addPathPatterns("/api/**"));
+    }
+}
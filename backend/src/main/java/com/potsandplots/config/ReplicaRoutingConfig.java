@@ -0,0 +1,69 @@
+package com.potsandplots.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Splits database traffic between the primary named by spring.datasource and a
+ * read replica named by potsandplots.datasource.replica.url, when one is set.
+ * Read-only transactions, which include every Spring Data finder, go to the
+ * replica; see ReplicaRoutingDataSource. Each side has its own Hikari pool,
+ * tuned under spring.datasource.hikari and potsandplots.datasource.replica.hikari.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "potsandplots.datasource.replica", name = "url")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("potsandplots.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${potsandplots.datasource.replica.url}") String url,
+                                              @Value("${potsandplots.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${potsandplots.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        // Nothing should ever write through this pool
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+            @Value("${potsandplots.datasource.replica.read-your-writes:5s}") Duration readYourWrites) {
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, readYourWrites);
+    }
+
+    /**
+     * The DataSource JPA, Flyway and JdbcTemplate use.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,65 @@
+package com.potsandplots.config;
+
+import com.potsandplots.event.EntityChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends the connections of read-only transactions to a replica and everything
+ * else to the primary.
+ * <p>
+ * A replica trails the primary, so a garden that has just written reads from
+ * the primary until the configured lag has passed; someone who moves a plant
+ * and reloads sees the move. Writes are noted from entity change events, which
+ * are published once a write has committed.
+ * <p>
+ * The routing decision reads the transaction's read-only flag, which Spring
+ * only sets after the transaction has begun, so this must sit behind a
+ * LazyConnectionDataSourceProxy that fetches the connection at the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private final long readYourWritesNanos;
+
+    // When each garden last wrote, by System.nanoTime()
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    /**
+     * @param readYourWrites how long after a write the garden keeps reading from the primary;
+     *                       the most the replica is expected to lag
+     */
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWrites) {
+        this.readYourWritesNanos = readYourWrites.toNanos();
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @EventListener
+    public void onEntityChange(EntityChangeEvent event) {
+        lastWrites.put(event.getGardenId(), System.nanoTime());
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Target.PRIMARY;
+        }
+        String gardenId = GardenContext.current();
+        Long lastWrite = lastWrites.get(gardenId);
+        if (lastWrite != null) {
+            if (System.nanoTime() - lastWrite < readYourWritesNanos) {
+                return Target.PRIMARY;
+            }
+            lastWrites.remove(gardenId, lastWrite);
+        }
+        return Target.REPLICA;
+    }
+}
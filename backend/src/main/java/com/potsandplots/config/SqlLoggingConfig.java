@@ -0,0 +1,21 @@
+package com.potsandplots.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hands the SQL sampling rate to StatementCountingInspector, which Hibernate
+ * creates itself and so can't be given properties directly.
+ */
+@Configuration
+public class SqlLoggingConfig {
+
+    @Value("${potsandplots.logging.sql-sample-every:100}")
+    private int sampleEvery;
+
+    @PostConstruct
+    public void applySampleRate() {
+        StatementCountingInspector.setSampleEvery(sampleEvery);
+    }
+}
@@ -0,0 +1,41 @@
+package com.potsandplots.config;
+
+import com.potsandplots.repository.PlantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import java.util.Comparator;
+
+/**
+ * Reports how long startup took once the application is ready to serve, along with
+ * the slowest startup steps when they were recorded, so slow restarts can be traced
+ * to a cause. The same figures are exported as the application.ready.time metric
+ * and, with the buffered timeline, at /actuator/startup.
+ */
+@Component
+public class StartupTimeReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimeReporter.class);
+
+    private static final int SLOWEST_STEPS = 5;
+
+    @Autowired
+    private PlantRepository plantRepository;
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        log.info("Ready in {} ms with {} plants", event.getTimeTaken().toMillis(), plantRepository.count());
+
+        if (event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup) {
+            startup.getBufferedTimeline().getEvents().stream()
+                    .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                    .limit(SLOWEST_STEPS)
+                    .forEach(step -> log.info("  {} ms  {}", step.getDuration().toMillis(), step.getStartupStep().getName()));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.potsandplots.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread, so that
+ * RequestMetricsInterceptor can report how many statements each request ran.
+ * Registered through hibernate.session_factory.statement_inspector.
+ *
+ * Also takes the place of spring.jpa.show-sql: with the com.potsandplots.sql
+ * category at DEBUG, one statement in every potsandplots.logging.sql-sample-every
+ * is logged through SLF4J instead of every statement being printed to stdout.
+ */
+public class StatementCountingInspector implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger sqlLog = LoggerFactory.getLogger("com.potsandplots.sql");
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+    private static final AtomicLong SEEN = new AtomicLong();
+
+    private static volatile int sampleEvery = 100;
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        if (sqlLog.isDebugEnabled() && SEEN.incrementAndGet() % sampleEvery == 0) {
+            sqlLog.debug("{}", sql);
+        }
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static int count() {
+        return COUNT.get()[0];
+    }
+
+    static void setSampleEvery(int every) {
+        sampleEvery = Math.max(1, every);
+    }
+}
@@ -1,9 +1,15 @@
 package com.potsandplots.controller;
 
+import com.potsandplots.event.EntityChangeEvent;
+import com.potsandplots.event.EntityChangeEvent.ChangeType;
+import com.potsandplots.event.EntityChangeEvent.EntityType;
 import com.potsandplots.model.Area;
 import com.potsandplots.repository.AreaRepository;
+import com.potsandplots.service.ChangeTracker;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
 
 @RestController
@@ -14,18 +20,33 @@ public class AreaController {
     @Autowired
     private AreaRepository areaRepository;
     
+    @Autowired
+    private ChangeTracker changeTracker;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     @GetMapping
-    public List<Area> getAllAreas() {
+    public List<Area> getAllAreas(WebRequest request) {
+        if (request.checkNotModified(changeTracker.etag(EntityType.AREA))) {
+            return null;
+        }
         return areaRepository.findAll();
     }
     
     @GetMapping("/{id}")
-    public Area getArea(@PathVariable Long id) {
-        return areaRepository.findById(id).orElse(null);
+    public Area getArea(@PathVariable Long id, WebRequest request) {
+        Area area = areaRepository.findById(id).orElse(null);
+        if (area != null && request.checkNotModified(changeTracker.etag(EntityType.AREA, id, area.getVersion()))) {
+            return null;
+        }
+        return area;
     }
     
     @PostMapping
     public Area createArea(@RequestBody Area area) {
-        return areaRepository.save(area);
+        Area savedArea = areaRepository.save(area);
+        eventPublisher.publishEvent(new EntityChangeEvent(EntityType.AREA, ChangeType.CREATED, savedArea.getId(), savedArea));
+        return savedArea;
     }
 }
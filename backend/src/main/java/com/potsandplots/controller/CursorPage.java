@@ -0,0 +1,58 @@
+package com.potsandplots.controller;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset (id-based) pagination shared by the list endpoints. Clients pass the last
+ * id they received as {@code after}; when a full page is returned the id to
+ * continue from is sent back in the {@value #NEXT_CURSOR_HEADER} header. Paged
+ * requests without a {@code limit} get pages of {@value #MAX_PAGE_SIZE}.
+ */
+final class CursorPage {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String FIELDS_FULL = "full";
+    static final String FIELDS_SUMMARY = "summary";
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private CursorPage() {}
+
+    /**
+     * Requests without any paging or projection parameters keep the original
+     * unpaged, full-entity response.
+     */
+    static boolean isRequested(Long after, Integer limit, String fields) {
+        return after != null || limit != null || isSummary(fields);
+    }
+
+    static boolean isSummary(String fields) {
+        return FIELDS_SUMMARY.equalsIgnoreCase(fields);
+    }
+
+    static long cursor(Long after) {
+        return after != null ? after : 0L;
+    }
+
+    static Pageable pageable(Integer limit) {
+        return PageRequest.of(0, pageSize(limit));
+    }
+
+    static <T> ResponseEntity<List<?>> of(List<T> items, Integer limit, Function<T, Long> idOf) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!items.isEmpty() && items.size() >= pageSize(limit)) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(idOf.apply(items.get(items.size() - 1))));
+        }
+        return response.body(items);
+    }
+
+    private static int pageSize(Integer limit) {
+        if (limit == null) {
+            return MAX_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+}
@@ -0,0 +1,32 @@
+package com.potsandplots.controller;
+
+import com.potsandplots.dto.DashboardSnapshot;
+import com.potsandplots.event.EntityChangeEvent.EntityType;
+import com.potsandplots.service.ChangeTracker;
+import com.potsandplots.service.DashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@CrossOrigin(origins = "http://localhost:3000")
+public class DashboardController {
+    
+    @Autowired
+    private DashboardService dashboardService;
+    
+    @Autowired
+    private ChangeTracker changeTracker;
+    
+    @GetMapping
+    public ResponseEntity<DashboardSnapshot> getDashboard(WebRequest request) {
+        // Read the version before loading so a concurrent write can only make the ETag stale, never too new
+        String etag = changeTracker.etag(EntityType.values());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok(dashboardService.getSnapshot());
+    }
+}
@@ -0,0 +1,27 @@
+package com.potsandplots.controller;
+
+import com.potsandplots.service.ChangeFeed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "http://localhost:3000")
+public class EventController {
+    
+    @Autowired
+    private ChangeFeed changeFeed;
+    
+    /**
+     * Streams entity changes as server-sent events. Browsers resume with the
+     * Last-Event-ID header on reconnect; a client starting from a snapshot passes
+     * the snapshot's changeSequence as {@code since}.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                    @RequestParam(required = false) String since) {
+        return changeFeed.subscribe(lastEventId != null && !lastEventId.isBlank() ? lastEventId : since);
+    }
+}
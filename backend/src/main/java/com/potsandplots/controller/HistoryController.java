@@ -0,0 +1,62 @@
+package com.potsandplots.controller;
+
+import com.potsandplots.config.GardenContext;
+import com.potsandplots.model.PlantEvent;
+import com.potsandplots.repository.PlantEventRepository;
+import com.potsandplots.service.PlantEventLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.web.bind.annotation.*;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Plant history recorded by PlantEventLog, oldest first. {@code from} is
+ * inclusive and {@code to} exclusive; both default to the whole history. Only
+ * the current garden's history is returned.
+ */
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "http://localhost:3000")
+public class HistoryController {
+    
+    static final int MAX_EVENTS = 1000;
+    
+    @Autowired
+    private PlantEventRepository plantEventRepository;
+    
+    @Autowired
+    private PlantEventLog plantEventLog;
+    
+    @GetMapping("/plants/{id}/history")
+    public List<PlantEvent> getPlantHistory(@PathVariable Long id,
+                                            @RequestParam(required = false) Instant from,
+                                            @RequestParam(required = false) Instant to,
+                                            @RequestParam(defaultValue = "" + MAX_EVENTS) int limit) {
+        plantEventLog.flush();
+        return plantEventRepository.findByGardenIdAndPlantIdAndOccurredAtGreaterThanEqualAndOccurredAtLessThanOrderByIdAsc(
+                GardenContext.current(), id, from(from), to(to), page(limit));
+    }
+    
+    @GetMapping("/areas/{id}/history")
+    public List<PlantEvent> getAreaHistory(@PathVariable Long id,
+                                           @RequestParam(required = false) Instant from,
+                                           @RequestParam(required = false) Instant to,
+                                           @RequestParam(defaultValue = "" + MAX_EVENTS) int limit) {
+        plantEventLog.flush();
+        return plantEventRepository.findByGardenIdAndAreaIdAndOccurredAtGreaterThanEqualAndOccurredAtLessThanOrderByIdAsc(
+                GardenContext.current(), id, from(from), to(to), page(limit));
+    }
+    
+    private static Instant from(Instant from) {
+        return from != null ? from : Instant.EPOCH;
+    }
+    
+    private static Instant to(Instant to) {
+        return to != null ? to : Instant.now().plusSeconds(1);
+    }
+    
+    private static PageRequest page(int limit) {
+        return PageRequest.of(0, Math.max(1, Math.min(limit, MAX_EVENTS)));
+    }
+}
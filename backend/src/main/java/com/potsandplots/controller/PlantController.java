@@ -1,15 +1,34 @@
 package com.potsandplots.controller;
 
+import com.potsandplots.dto.BatchItemResult;
 import com.potsandplots.dto.PlantCreateRequest;
+import com.potsandplots.dto.PlantMoveRequest;
+import com.potsandplots.dto.PlantSummary;
+import com.potsandplots.event.EntityChangeEvent;
+import com.potsandplots.event.EntityChangeEvent.ChangeType;
+import com.potsandplots.event.EntityChangeEvent.EntityType;
+import com.potsandplots.event.PositionConflictEvent;
 import com.potsandplots.model.Plant;
 import com.potsandplots.repository.PlantRepository;
+import com.potsandplots.service.ChangeTracker;
+import com.potsandplots.service.PlantBatchService;
+import com.potsandplots.service.PlantLocks;
+import com.potsandplots.service.PlotOccupancyIndex;
+import com.potsandplots.service.PositionConflictException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.HashMap;
+import java.util.function.Supplier;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
@@ -18,58 +37,144 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 @CrossOrigin(origins = "http://localhost:3000", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.OPTIONS})
 public class PlantController {
     
+    private static final Logger log = LoggerFactory.getLogger(PlantController.class);
+    
+    private static final int MAX_WRITE_ATTEMPTS = 5;
+    
     @Autowired
     private PlantRepository plantRepository;
     
+    @Autowired
+    private PlotOccupancyIndex occupancyIndex;
+    
+    @Autowired
+    private PlantLocks plantLocks;
+    
+    @Autowired
+    private PlantBatchService plantBatchService;
+    
+    @Autowired
+    private ChangeTracker changeTracker;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     @GetMapping
-    public List<Plant> getAllPlants() {
-        return plantRepository.findAll();
+    public ResponseEntity<List<?>> getAllPlants(@RequestParam(required = false) Long after,
+                                                @RequestParam(required = false) Integer limit,
+                                                @RequestParam(defaultValue = CursorPage.FIELDS_FULL) String fields,
+                                                WebRequest request) {
+        if (request.checkNotModified(changeTracker.etag(EntityType.PLANT))) {
+            return null;
+        }
+        if (!CursorPage.isRequested(after, limit, fields)) {
+            return ResponseEntity.ok(plantRepository.findAll());
+        }
+        Pageable page = CursorPage.pageable(limit);
+        if (CursorPage.isSummary(fields)) {
+            return CursorPage.of(plantRepository.findByIdGreaterThanOrderByIdAsc(
+                    CursorPage.cursor(after), page, PlantSummary.class), limit, PlantSummary::getId);
+        }
+        return CursorPage.of(plantRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.cursor(after), page, Plant.class), limit, Plant::getId);
     }
     
     @GetMapping("/{id}")
-    public Plant getPlant(@PathVariable Long id) {
-        return plantRepository.findById(id).orElse(null);
+    public Plant getPlant(@PathVariable Long id, WebRequest request) {
+        Plant plant = plantRepository.findById(id).orElse(null);
+        if (plant != null && request.checkNotModified(changeTracker.etag(EntityType.PLANT, id, plant.getVersion()))) {
+            return null;
+        }
+        return plant;
     }
     
     @GetMapping("/area/{areaId}")
-    public List<Plant> getPlantsByArea(@PathVariable Long areaId) {
-        return plantRepository.findByAreaId(areaId);
+    public ResponseEntity<List<?>> getPlantsByArea(@PathVariable Long areaId,
+                                                   @RequestParam(required = false) Long after,
+                                                   @RequestParam(required = false) Integer limit,
+                                                   @RequestParam(defaultValue = CursorPage.FIELDS_FULL) String fields,
+                                                   WebRequest request) {
+        if (request.checkNotModified(changeTracker.etag(EntityType.PLANT))) {
+            return null;
+        }
+        if (!CursorPage.isRequested(after, limit, fields)) {
+            return ResponseEntity.ok(plantRepository.findByAreaId(areaId));
+        }
+        Pageable page = CursorPage.pageable(limit);
+        if (CursorPage.isSummary(fields)) {
+            return CursorPage.of(plantRepository.findByAreaIdAndIdGreaterThanOrderByIdAsc(
+                    areaId, CursorPage.cursor(after), page, PlantSummary.class), limit, PlantSummary::getId);
+        }
+        return CursorPage.of(plantRepository.findByAreaIdAndIdGreaterThanOrderByIdAsc(
+                areaId, CursorPage.cursor(after), page, Plant.class), limit, Plant::getId);
     }
     
     @GetMapping("/plot/{plotId}")
-    public List<Plant> getPlantsByPlot(@PathVariable Long plotId) {
-        return plantRepository.findByPlotId(plotId);
+    public ResponseEntity<List<?>> getPlantsByPlot(@PathVariable Long plotId,
+                                                   @RequestParam(required = false) Long after,
+                                                   @RequestParam(required = false) Integer limit,
+                                                   @RequestParam(defaultValue = CursorPage.FIELDS_FULL) String fields,
+                                                   WebRequest request) {
+        if (request.checkNotModified(changeTracker.etag(EntityType.PLANT))) {
+            return null;
+        }
+        if (!CursorPage.isRequested(after, limit, fields)) {
+            return ResponseEntity.ok(plantRepository.findByPlotId(plotId));
+        }
+        Pageable page = CursorPage.pageable(limit);
+        if (CursorPage.isSummary(fields)) {
+            return CursorPage.of(plantRepository.findByPlotIdAndIdGreaterThanOrderByIdAsc(
+                    plotId, CursorPage.cursor(after), page, PlantSummary.class), limit, PlantSummary::getId);
+        }
+        return CursorPage.of(plantRepository.findByPlotIdAndIdGreaterThanOrderByIdAsc(
+                plotId, CursorPage.cursor(after), page, Plant.class), limit, Plant::getId);
     }
     
     @PostMapping
     public Plant createPlant(@RequestBody PlantCreateRequest request) {
         // Validate position conflicts if plant has specific coordinates
+        PlotOccupancyIndex.Reservation reservation = null;
         if (request.getPositionX() != null && request.getPositionY() != null) {
-            List<Plant> existingPlants = plantRepository.findByAreaIdAndPositionXAndPositionY(
-                    request.getAreaId(), request.getPositionX(), request.getPositionY());
-            
-            if (!existingPlants.isEmpty()) {
-                throw new RuntimeException("Position (" + request.getPositionX() + ", " + request.getPositionY() + 
-                                         ") is already occupied by another plant in this area");
+            if (request.getPlotId() != null) {
+                reservation = occupancyIndex.reserve(request.getPlotId(), request.getPositionX(), request.getPositionY(), null);
+            } else {
+                List<Plant> existingPlants = plantRepository.findByAreaIdAndPositionXAndPositionY(
+                        request.getAreaId(), request.getPositionX(), request.getPositionY());
+                
+                if (!existingPlants.isEmpty()) {
+                    eventPublisher.publishEvent(new PositionConflictEvent(PositionConflictEvent.Scope.AREA,
+                            request.getAreaId(), request.getPositionX(), request.getPositionY()));
+                    throw new RuntimeException("Position (" + request.getPositionX() + ", " + request.getPositionY() + 
+                                             ") is already occupied by another plant in this area");
+                }
             }
         }
         
-        Plant plant = new Plant(request.getName(), request.getSpeciesId(), request.getAreaId());
-        plant.setPlotId(request.getPlotId());
-        plant.setPositionX(request.getPositionX());
-        plant.setPositionY(request.getPositionY());
-        plant.setNotes(request.getNotes());
-        plant.setWateringSchedule("weekly");
-        return plantRepository.save(plant);
+        Plant savedPlant = saveAndTrack(request.toPlant(), reservation);
+        eventPublisher.publishEvent(new EntityChangeEvent(EntityType.PLANT, ChangeType.CREATED, savedPlant.getId(), savedPlant));
+        return savedPlant;
+    }
+    
+    @PostMapping("/batch")
+    public List<BatchItemResult> createPlants(@RequestBody List<PlantCreateRequest> requests) {
+        return plantBatchService.createPlants(requests);
+    }
+    
+    @PutMapping("/move/batch")
+    public ResponseEntity<List<BatchItemResult>> movePlants(@RequestBody List<PlantMoveRequest> requests) {
+        try {
+            return ResponseEntity.ok(plantBatchService.movePlants(requests));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
     
     @PutMapping("/{id}")
     public ResponseEntity<Plant> updatePlant(@PathVariable Long id, @RequestBody Plant plantUpdate) {
         try {
-            System.out.println("Updating plant with ID: " + id);
-            System.out.println("Plant update data: " + plantUpdate.getName());
+            log.debug("Updating plant {} ({})", id, plantUpdate.getName());
             
-            return plantRepository.findById(id)
+            return plantLocks.withLock(id, () -> retryOnVersionConflict(() -> plantRepository.findById(id)
                 .map(plant -> {
                     if (plantUpdate.getName() != null && !plantUpdate.getName().trim().isEmpty()) {
                         plant.setName(plantUpdate.getName());
@@ -91,31 +196,44 @@ public class PlantController {
                     }
                     
                     // Handle position updates with conflict checking
+                    PlotOccupancyIndex.Reservation reservation = null;
                     if (plantUpdate.getPositionX() != null && plantUpdate.getPositionY() != null) {
-                        List<Plant> existingPlants = plantRepository.findByAreaIdAndPositionXAndPositionY(
-                                plant.getAreaId(), plantUpdate.getPositionX(), plantUpdate.getPositionY());
-                        
-                        // Check if any other plant occupies this position
-                        boolean positionOccupied = existingPlants.stream()
-                                .anyMatch(p -> !Objects.equals(p.getId(), plant.getId()));
-                        
-                        if (positionOccupied) {
-                            throw new RuntimeException("Position (" + plantUpdate.getPositionX() + ", " + 
-                                                     plantUpdate.getPositionY() + ") is already occupied");
+                        if (plant.getPlotId() != null) {
+                            reservation = occupancyIndex.reserve(plant.getPlotId(), plantUpdate.getPositionX(),
+                                                                 plantUpdate.getPositionY(), plant.getId());
+                        } else {
+                            List<Plant> existingPlants = plantRepository.findByAreaIdAndPositionXAndPositionY(
+                                    plant.getAreaId(), plantUpdate.getPositionX(), plantUpdate.getPositionY());
+                            
+                            // Check if any other plant occupies this position
+                            boolean positionOccupied = existingPlants.stream()
+                                    .anyMatch(p -> !Objects.equals(p.getId(), plant.getId()));
+                            
+                            if (positionOccupied) {
+                                eventPublisher.publishEvent(new PositionConflictEvent(PositionConflictEvent.Scope.AREA,
+                                        plant.getAreaId(), plantUpdate.getPositionX(), plantUpdate.getPositionY()));
+                                throw new RuntimeException("Position (" + plantUpdate.getPositionX() + ", " + 
+                                                         plantUpdate.getPositionY() + ") is already occupied");
+                            }
                         }
                         
                         plant.setPositionX(plantUpdate.getPositionX());
                         plant.setPositionY(plantUpdate.getPositionY());
                     }
                     
-                    Plant savedPlant = plantRepository.save(plant);
-                    System.out.println("Plant updated successfully: " + savedPlant.getName());
+                    Plant savedPlant = saveAndTrack(plant, reservation);
+                    eventPublisher.publishEvent(new EntityChangeEvent(EntityType.PLANT, ChangeType.UPDATED, id, savedPlant));
+                    log.debug("Updated plant {}", id);
                     return ResponseEntity.ok(savedPlant);
                 })
-                .orElse(ResponseEntity.notFound().build());
+                .orElse(ResponseEntity.notFound().build())));
+        } catch (PositionConflictException | IllegalArgumentException e) {
+            // Unknown plot, cell outside it or bad input: a 400 like createPlant gives
+            throw e;
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
-            System.err.println("Error updating plant: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error updating plant {}", id, e);
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -123,7 +241,7 @@ public class PlantController {
     @PutMapping("/{id}/move")
     public ResponseEntity<Plant> movePlant(@PathVariable Long id, @RequestBody Map<String, Object> moveData) {
         try {
-            return plantRepository.findById(id)
+            return plantLocks.withLock(id, () -> retryOnVersionConflict(() -> plantRepository.findById(id)
                 .map(plant -> {
                     // Update area if provided
                     if (moveData.containsKey("areaId")) {
@@ -132,6 +250,7 @@ public class PlantController {
                     }
                     
                     // Update plot if provided (can be null for free-standing plants)
+                    PlotOccupancyIndex.Reservation reservation = null;
                     if (moveData.containsKey("plotId")) {
                         Object plotIdValue = moveData.get("plotId");
                         if (plotIdValue == null || "null".equals(plotIdValue.toString())) {
@@ -146,34 +265,34 @@ public class PlantController {
                                 Integer newPositionX = Integer.valueOf(moveData.get("positionX").toString());
                                 Integer newPositionY = Integer.valueOf(moveData.get("positionY").toString());
                                 
-                                // Check for position conflicts (excluding the current plant)
-                                List<Plant> existingPlantsInPlot = plantRepository.findByPlotId(newPlotId);
-                                boolean positionOccupied = existingPlantsInPlot.stream()
-                                    .filter(p -> !Objects.equals(p.getId(), plant.getId())) // Exclude current plant
-                                    .anyMatch(p -> Objects.equals(p.getPositionX(), newPositionX) && 
-                                                 Objects.equals(p.getPositionY(), newPositionY));
-                                
-                                if (positionOccupied) {
-                                    throw new RuntimeException("Position (" + newPositionX + ", " + newPositionY + 
-                                                             ") is already occupied by another plant in this plot");
-                                }
+                                // Claim the target cell (the plant's own cell counts as free)
+                                reservation = occupancyIndex.reserve(newPlotId, newPositionX, newPositionY, plant.getId());
                                 
                                 plant.setPositionX(newPositionX);
                                 plant.setPositionY(newPositionY);
+                            } else if (!newPlotId.equals(plant.getPlotId())) {
+                                // The old cell means nothing in another plot; the plant lands unplaced
+                                plant.setPositionX(null);
+                                plant.setPositionY(null);
                             }
                             
                             plant.setPlotId(newPlotId);
                         }
                     }
                     
-                    Plant savedPlant = plantRepository.save(plant);
-                    System.out.println("Plant moved successfully: " + savedPlant.getName());
+                    Plant savedPlant = saveAndTrack(plant, reservation);
+                    eventPublisher.publishEvent(EntityChangeEvent.plantMoved(savedPlant));
+                    log.debug("Moved plant {}", id);
                     return ResponseEntity.ok(savedPlant);
                 })
-                .orElse(ResponseEntity.notFound().build());
+                .orElse(ResponseEntity.notFound().build())));
+        } catch (PositionConflictException | IllegalArgumentException e) {
+            // Unknown plot, cell outside it or bad input: a 400 like createPlant gives
+            throw e;
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
-            System.err.println("Error moving plant: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error moving plant {}", id, e);
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -182,16 +301,20 @@ public class PlantController {
     public ResponseEntity<Map<String, Object>> deletePlant(@PathVariable Long id) {
         Map<String, Object> response = new HashMap<>();
         try {
-            if (plantRepository.existsById(id)) {
-                plantRepository.deleteById(id);
-                response.put("success", true);
-                response.put("plantId", id);
-                return ResponseEntity.ok(response);
-            } else {
-                response.put("success", false);
-                response.put("error", "Plant not found");
-                return ResponseEntity.notFound().build();
-            }
+            return plantLocks.withLock(id, () -> {
+                if (plantRepository.existsById(id)) {
+                    plantRepository.deleteById(id);
+                    occupancyIndex.remove(id);
+                    eventPublisher.publishEvent(new EntityChangeEvent(EntityType.PLANT, ChangeType.DELETED, id));
+                    response.put("success", true);
+                    response.put("plantId", id);
+                    return ResponseEntity.ok(response);
+                } else {
+                    response.put("success", false);
+                    response.put("error", "Plant not found");
+                    return ResponseEntity.notFound().build();
+                }
+            });
         } catch (Exception e) {
             response.put("success", false);
             response.put("error", e.getMessage());
@@ -199,6 +322,46 @@ public class PlantController {
         }
     }
 
+    /**
+     * Saves the plant and brings the occupancy index in line with it. A reserved
+     * cell is handed to the plant on success and released again if the save fails.
+     */
+    private Plant saveAndTrack(Plant plant, PlotOccupancyIndex.Reservation reservation) {
+        Plant savedPlant;
+        try {
+            savedPlant = plantRepository.save(plant);
+        } catch (RuntimeException e) {
+            if (reservation != null) {
+                reservation.cancel();
+            }
+            throw e;
+        }
+        if (reservation != null) {
+            reservation.commit(savedPlant.getId());
+        } else if (savedPlant.getPlotId() != null && savedPlant.getPositionX() != null && savedPlant.getPositionY() != null) {
+            occupancyIndex.place(savedPlant.getId(), savedPlant.getPlotId(), savedPlant.getPositionX(), savedPlant.getPositionY());
+        } else {
+            occupancyIndex.remove(savedPlant.getId());
+        }
+        return savedPlant;
+    }
+
+    /**
+     * Re-runs a read-modify-write whose save lost an optimistic version check, so it
+     * is applied again on top of the winning write.
+     */
+    private <T> T retryOnVersionConflict(Supplier<T> write) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return write.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_WRITE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Map<String, String>> handleRuntimeException(RuntimeException e) {
         Map<String, String> error = new HashMap<>();
@@ -1,9 +1,25 @@
 package com.potsandplots.controller;
 
+import com.potsandplots.dto.GridPosition;
+import com.potsandplots.dto.PlotSuggestion;
+import com.potsandplots.event.EntityChangeEvent;
+import com.potsandplots.event.EntityChangeEvent.ChangeType;
+import com.potsandplots.event.EntityChangeEvent.EntityType;
 import com.potsandplots.model.PlantType;
+import com.potsandplots.model.PlantTypeRelation;
+import com.potsandplots.repository.PlantTypeRelationRepository;
 import com.potsandplots.repository.PlantTypeRepository;
+import com.potsandplots.service.ChangeTracker;
+import com.potsandplots.service.PlotOccupancyIndex;
+import com.potsandplots.service.PlotSuitabilityIndex;
+import com.potsandplots.service.PlotSuitabilityIndex.RankedPlot;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 @RestController
@@ -11,21 +27,97 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:3000")
 public class PlantTypeController {
     
+    static final int MAX_SUGGESTIONS = 100;
+    
     @Autowired
     private PlantTypeRepository plantTypeRepository;
     
+    @Autowired
+    private PlantTypeRelationRepository relationRepository;
+    
+    @Autowired
+    private ChangeTracker changeTracker;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private PlotSuitabilityIndex suitabilityIndex;
+    
+    @Autowired
+    private PlotOccupancyIndex occupancyIndex;
+    
     @GetMapping
-    public List<PlantType> getAllPlantTypes() {
+    public List<PlantType> getAllPlantTypes(WebRequest request) {
+        if (request.checkNotModified(changeTracker.etag(EntityType.PLANT_TYPE))) {
+            return null;
+        }
         return plantTypeRepository.findAll();
     }
     
     @GetMapping("/{id}")
-    public PlantType getPlantType(@PathVariable Long id) {
-        return plantTypeRepository.findById(id).orElse(null);
+    public PlantType getPlantType(@PathVariable Long id, WebRequest request) {
+        PlantType plantType = plantTypeRepository.findById(id).orElse(null);
+        if (plantType != null && request.checkNotModified(changeTracker.etag(EntityType.PLANT_TYPE, id, plantType.getVersion()))) {
+            return null;
+        }
+        return plantType;
     }
     
     @PostMapping
     public PlantType createPlantType(@RequestBody PlantType plantType) {
-        return plantTypeRepository.save(plantType);
+        PlantType savedPlantType = plantTypeRepository.save(plantType);
+        eventPublisher.publishEvent(new EntityChangeEvent(EntityType.PLANT_TYPE, ChangeType.CREATED, savedPlantType.getId(), savedPlantType));
+        return savedPlantType;
+    }
+    
+    /**
+     * The companion and antagonist rules naming this plant type, on either side.
+     */
+    @GetMapping("/{id}/relations")
+    public List<PlantTypeRelation> getRelations(@PathVariable Long id) {
+        return relationRepository.findInvolving(id);
+    }
+    
+    @PostMapping("/{id}/relations")
+    public ResponseEntity<PlantTypeRelation> addRelation(@PathVariable Long id, @RequestBody PlantTypeRelation relation) {
+        if (!PlantTypeRelation.COMPANION.equals(relation.getRelation()) && !PlantTypeRelation.ANTAGONIST.equals(relation.getRelation())) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!plantTypeRepository.existsById(id) || relation.getOtherTypeId() == null
+                || !plantTypeRepository.existsById(relation.getOtherTypeId())) {
+            return ResponseEntity.notFound().build();
+        }
+        relation.setId(null);
+        relation.setPlantTypeId(id);
+        return ResponseEntity.ok(relationRepository.save(relation));
+    }
+    
+    /**
+     * The plots best suited to this plant type that still have room, each with up
+     * to {@code cells} of its free cells.
+     */
+    @GetMapping("/{id}/suggested-plots")
+    public ResponseEntity<List<PlotSuggestion>> getSuggestedPlots(@PathVariable Long id,
+                                                                  @RequestParam(defaultValue = "10") int limit,
+                                                                  @RequestParam(defaultValue = "5") int cells) {
+        PlantType plantType = plantTypeRepository.findById(id).orElse(null);
+        if (plantType == null) {
+            return ResponseEntity.notFound().build();
+        }
+        int wanted = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        int cellsPerPlot = Math.max(cells, 1);
+        List<PlotSuggestion> suggestions = new ArrayList<>(wanted);
+        // Plots are only consulted until enough have room; each grid is scanned just for the cells returned
+        Iterator<RankedPlot> ranked = suitabilityIndex.rank(plantType).iterator();
+        while (suggestions.size() < wanted && ranked.hasNext()) {
+            RankedPlot plot = ranked.next();
+            List<GridPosition> freeCells = occupancyIndex.freeCells(plot.getPlotId(), cellsPerPlot).orElse(List.of());
+            if (!freeCells.isEmpty()) {
+                suggestions.add(new PlotSuggestion(plot.getPlotId(), plot.getPlotName(), plot.getAreaId(),
+                        plot.getScore(), freeCells));
+            }
+        }
+        return ResponseEntity.ok(suggestions);
     }
 }
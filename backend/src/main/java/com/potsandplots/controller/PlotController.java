@@ -1,47 +1,174 @@
 package com.potsandplots.controller;
 
+import com.potsandplots.dto.GridPosition;
+import com.potsandplots.dto.LayoutRequest;
+import com.potsandplots.dto.LayoutResult;
+import com.potsandplots.dto.PlotOccupancy;
+import com.potsandplots.dto.PlotSummary;
+import com.potsandplots.event.EntityChangeEvent;
+import com.potsandplots.event.EntityChangeEvent.ChangeType;
+import com.potsandplots.event.EntityChangeEvent.EntityType;
 import com.potsandplots.model.Plot;
-import com.potsandplots.model.Plant;
 import com.potsandplots.repository.PlotRepository;
-import com.potsandplots.repository.PlantRepository;
+import com.potsandplots.service.AutoLayoutService;
+import com.potsandplots.service.ChangeTracker;
+import com.potsandplots.service.PlotOccupancyIndex;
+import com.potsandplots.service.PlotService;
+import com.potsandplots.service.PositionConflictException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/plots")
 @CrossOrigin(origins = "http://localhost:3000", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.OPTIONS})
 public class PlotController {
     
+    private static final Logger log = LoggerFactory.getLogger(PlotController.class);
+    
     @Autowired
     private PlotRepository plotRepository;
     
     @Autowired
-    private PlantRepository plantRepository;
+    private PlotService plotService;
+    
+    @Autowired
+    private PlotOccupancyIndex occupancyIndex;
+    
+    @Autowired
+    private AutoLayoutService autoLayoutService;
+    
+    @Autowired
+    private ChangeTracker changeTracker;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
     @GetMapping
-    public List<Plot> getAllPlots() {
-        return plotRepository.findAll();
+    public ResponseEntity<List<?>> getAllPlots(@RequestParam(required = false) Long after,
+                                               @RequestParam(required = false) Integer limit,
+                                               @RequestParam(defaultValue = CursorPage.FIELDS_FULL) String fields,
+                                               WebRequest request) {
+        if (request.checkNotModified(changeTracker.etag(EntityType.PLOT))) {
+            return null;
+        }
+        if (!CursorPage.isRequested(after, limit, fields)) {
+            return ResponseEntity.ok(plotRepository.findAll());
+        }
+        Pageable page = CursorPage.pageable(limit);
+        if (CursorPage.isSummary(fields)) {
+            return CursorPage.of(plotRepository.findByIdGreaterThanOrderByIdAsc(
+                    CursorPage.cursor(after), page, PlotSummary.class), limit, PlotSummary::getId);
+        }
+        return CursorPage.of(plotRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.cursor(after), page, Plot.class), limit, Plot::getId);
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Plot> getPlot(@PathVariable Long id) {
-        return plotRepository.findById(id)
+    public ResponseEntity<Plot> getPlot(@PathVariable Long id, WebRequest request) {
+        Optional<Plot> plot = plotRepository.findById(id);
+        if (plot.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(changeTracker.etag(EntityType.PLOT, id, plot.get().getVersion()))) {
+            return null;
+        }
+        return ResponseEntity.ok(plot.get());
+    }
+    
+    @GetMapping("/area/{areaId}")
+    public ResponseEntity<List<?>> getPlotsByArea(@PathVariable Long areaId,
+                                                  @RequestParam(required = false) Long after,
+                                                  @RequestParam(required = false) Integer limit,
+                                                  @RequestParam(defaultValue = CursorPage.FIELDS_FULL) String fields,
+                                                  WebRequest request) {
+        if (request.checkNotModified(changeTracker.etag(EntityType.PLOT))) {
+            return null;
+        }
+        if (!CursorPage.isRequested(after, limit, fields)) {
+            return ResponseEntity.ok(plotRepository.findByAreaId(areaId));
+        }
+        Pageable page = CursorPage.pageable(limit);
+        if (CursorPage.isSummary(fields)) {
+            return CursorPage.of(plotRepository.findByAreaIdAndIdGreaterThanOrderByIdAsc(
+                    areaId, CursorPage.cursor(after), page, PlotSummary.class), limit, PlotSummary::getId);
+        }
+        return CursorPage.of(plotRepository.findByAreaIdAndIdGreaterThanOrderByIdAsc(
+                areaId, CursorPage.cursor(after), page, Plot.class), limit, Plot::getId);
+    }
+    
+    @GetMapping("/{id}/free-cells")
+    public ResponseEntity<List<GridPosition>> getFreeCells(@PathVariable Long id) {
+        return occupancyIndex.freeCells(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
     
-    @GetMapping("/area/{areaId}")
-    public List<Plot> getPlotsByArea(@PathVariable Long areaId) {
-        return plotRepository.findByAreaId(areaId);
+    /**
+     * The plot's occupancy grid, for drawing it without fetching its plants.
+     */
+    @GetMapping("/{id}/grid")
+    public ResponseEntity<PlotOccupancy> getGrid(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(changeTracker.etag(EntityType.PLOT, EntityType.PLANT))) {
+            return null;
+        }
+        return occupancyIndex.occupancy(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * The occupancy grids of every plot in an area, in plot id order.
+     */
+    @GetMapping("/area/{areaId}/grid")
+    public ResponseEntity<List<PlotOccupancy>> getAreaGrids(@PathVariable Long areaId, WebRequest request) {
+        if (request.checkNotModified(changeTracker.etag(EntityType.PLOT, EntityType.PLANT))) {
+            return null;
+        }
+        List<PlotOccupancy> grids = new ArrayList<>();
+        for (PlotSummary plot : plotRepository.findByAreaIdOrderByIdAsc(areaId, PlotSummary.class)) {
+            occupancyIndex.occupancy(plot.getId()).ifPresent(grids::add);
+        }
+        return ResponseEntity.ok(grids);
+    }
+    
+    /**
+     * Places the given plants, and new ones of the given types, in free cells of the
+     * plot chosen by spacing and companion rules. With {@code dryRun} the layout is
+     * only returned.
+     */
+    @PostMapping("/{id}/auto-layout")
+    public ResponseEntity<LayoutResult> autoLayout(@PathVariable Long id, @RequestBody LayoutRequest request,
+                                                   @RequestParam(defaultValue = "false") boolean dryRun) {
+        try {
+            return autoLayoutService.layout(id, request, !dryRun)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (PositionConflictException | OptimisticLockingFailureException e) {
+            // Another write got to one of the chosen cells or plants first; the layout can simply be retried
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @PostMapping
     public Plot createPlot(@RequestBody Plot plot) {
-        return plotRepository.save(plot);
+        Plot savedPlot = plotRepository.save(plot);
+        eventPublisher.publishEvent(new EntityChangeEvent(EntityType.PLOT, ChangeType.CREATED, savedPlot.getId(), savedPlot));
+        return savedPlot;
     }
     
     @PutMapping("/{id}")
@@ -55,7 +182,10 @@ public class PlotController {
                 plot.setSoilType(plotUpdate.getSoilType());
                 plot.setPh(plotUpdate.getPh());
                 plot.setDrainageLevel(plotUpdate.getDrainageLevel());
-                return plotRepository.save(plot);
+                Plot savedPlot = plotRepository.save(plot);
+                occupancyIndex.evictPlot(id);
+                eventPublisher.publishEvent(new EntityChangeEvent(EntityType.PLOT, ChangeType.UPDATED, id, savedPlot));
+                return savedPlot;
             })
             .orElse(null);
     }
@@ -63,38 +193,29 @@ public class PlotController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, Object>> deletePlot(@PathVariable Long id) {
         try {
-            // Check if plot exists
-            if (!plotRepository.existsById(id)) {
-                Map<String, Object> errorResponse = new HashMap<>();
-                errorResponse.put("success", false);
-                errorResponse.put("message", "Plot not found");
+            // Make the plot's plants free-standing and delete it in one transaction
+            Optional<List<Long>> detachedPlantIds = plotService.deletePlot(id);
+            if (detachedPlantIds.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
             
-            // Find all plants in this plot and make them free-standing
-            List<Plant> plantsInPlot = plantRepository.findByPlotId(id);
-            for (Plant plant : plantsInPlot) {
-                plant.setPlotId(null);
-                plant.setPositionX(null);
-                plant.setPositionY(null);
-                plantRepository.save(plant);
-                System.out.println("Plant " + plant.getName() + " converted to free-standing");
+            occupancyIndex.evictPlot(id);
+            eventPublisher.publishEvent(new EntityChangeEvent(EntityType.PLOT, ChangeType.DELETED, id));
+            for (Long plantId : detachedPlantIds.get()) {
+                eventPublisher.publishEvent(EntityChangeEvent.plantDetached(plantId));
             }
             
-            // Delete the plot
-            plotRepository.deleteById(id);
-            
-            System.out.println("Plot deleted successfully. " + plantsInPlot.size() + " plants converted to free-standing.");
+            int plantsConverted = detachedPlantIds.get().size();
+            log.debug("Deleted plot {}; {} plants converted to free-standing", id, plantsConverted);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Plot deleted successfully");
-            response.put("plantsConverted", plantsInPlot.size());
+            response.put("plantsConverted", plantsConverted);
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            System.err.println("Error deleting plot: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error deleting plot {}", id, e);
             
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
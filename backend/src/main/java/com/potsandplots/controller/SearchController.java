@@ -0,0 +1,30 @@
+package com.potsandplots.controller;
+
+import com.potsandplots.dto.SearchHit;
+import com.potsandplots.service.SearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "http://localhost:3000")
+public class SearchController {
+    
+    static final int MAX_RESULTS = 100;
+    
+    @Autowired
+    private SearchIndex searchIndex;
+    
+    /**
+     * Plants and plant types matching every word of {@code q}, best match first.
+     * {@code type} narrows the search to "plant" or "plantType".
+     */
+    @GetMapping
+    public List<SearchHit> search(@RequestParam String q,
+                                  @RequestParam(required = false) String type,
+                                  @RequestParam(defaultValue = "20") int limit) throws IOException {
+        return searchIndex.search(q, type, Math.max(1, Math.min(limit, MAX_RESULTS)));
+    }
+}
@@ -0,0 +1,68 @@
+package com.potsandplots.controller;
+
+import com.potsandplots.dto.WateringTask;
+import com.potsandplots.event.EntityChangeEvent;
+import com.potsandplots.event.EntityChangeEvent.ChangeType;
+import com.potsandplots.event.EntityChangeEvent.EntityType;
+import com.potsandplots.model.Plant;
+import com.potsandplots.repository.PlantRepository;
+import com.potsandplots.service.PlantLocks;
+import com.potsandplots.service.WateringQueue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/tasks")
+@CrossOrigin(origins = "http://localhost:3000")
+public class TaskController {
+
+    static final int MAX_TASKS = 1000;
+
+    @Autowired
+    private WateringQueue wateringQueue;
+
+    @Autowired
+    private PlantRepository plantRepository;
+
+    @Autowired
+    private PlantLocks plantLocks;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Watering tasks due before the given instant (default: now), soonest first.
+     */
+    @GetMapping("/due")
+    public List<WateringTask> getDueTasks(@RequestParam(required = false) Instant before,
+                                          @RequestParam(defaultValue = "" + MAX_TASKS) int limit) {
+        return wateringQueue.dueBefore(before != null ? before : Instant.now(),
+                Math.max(1, Math.min(limit, MAX_TASKS)));
+    }
+
+    /**
+     * Records that the plant has just been watered, which moves its next task on
+     * by one recurrence.
+     */
+    @PostMapping("/{plantId}/watered")
+    public ResponseEntity<Plant> markWatered(@PathVariable Long plantId) {
+        try {
+            return plantLocks.withLock(plantId, () -> plantRepository.findById(plantId)
+                .map(plant -> {
+                    plant.setLastWatered(Instant.now());
+                    Plant savedPlant = plantRepository.save(plant);
+                    eventPublisher.publishEvent(new EntityChangeEvent(EntityType.PLANT, ChangeType.UPDATED, plantId, savedPlant));
+                    return ResponseEntity.ok(savedPlant);
+                })
+                .orElse(ResponseEntity.notFound().build()));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.potsandplots.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.potsandplots.config.GardenContext;
+import com.potsandplots.dto.ImportSummary;
+import com.potsandplots.service.GardenTransfer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "http://localhost:3000")
+public class TransferController {
+    
+    public static final String NDJSON = "application/x-ndjson";
+    
+    @Autowired
+    private GardenTransfer gardenTransfer;
+    
+    /**
+     * Streams the whole garden as NDJSON, gzipped when the client accepts it or
+     * asks for {@code gzip=true}.
+     */
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportGarden(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        boolean compress = gzip || (acceptEncoding != null && acceptEncoding.contains("gzip"));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"garden.ndjson" + (compress ? ".gz" : "") + "\"");
+        if (compress) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        String gardenId = GardenContext.current();
+        return response.body(out -> {
+            // The body is written on an async thread, which starts out in no garden
+            GardenContext.set(gardenId);
+            try {
+                if (compress) {
+                    try (GZIPOutputStream gzipped = new GZIPOutputStream(out, 64 * 1024)) {
+                        gardenTransfer.exportTo(gzipped);
+                    }
+                } else {
+                    gardenTransfer.exportTo(out);
+                }
+            } finally {
+                GardenContext.clear();
+            }
+        });
+    }
+    
+    /**
+     * Imports an export, streamed as the request body (gzipped if sent with
+     * Content-Encoding: gzip). Everything gets new ids.
+     */
+    @PostMapping(value = "/import", consumes = {NDJSON, MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ImportSummary importGarden(HttpServletRequest request) throws IOException {
+        InputStream in = request.getInputStream();
+        if ("gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+            in = new GZIPInputStream(in, 64 * 1024);
+        }
+        return gardenTransfer.importFrom(in);
+    }
+    
+    @ExceptionHandler(JsonProcessingException.class)
+    public ResponseEntity<Map<String, String>> handleMalformedInput(JsonProcessingException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Malformed import: " + e.getOriginalMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+}
@@ -0,0 +1,42 @@
+package com.potsandplots.dto;
+
+import com.potsandplots.model.Plant;
+
+public class BatchItemResult {
+    private int index;
+    private boolean success;
+    private Plant plant;
+    private String error;
+    
+    // Constructors
+    public BatchItemResult() {}
+    
+    public static BatchItemResult succeeded(int index, Plant plant) {
+        BatchItemResult result = new BatchItemResult();
+        result.index = index;
+        result.success = true;
+        result.plant = plant;
+        return result;
+    }
+    
+    public static BatchItemResult failed(int index, String error) {
+        BatchItemResult result = new BatchItemResult();
+        result.index = index;
+        result.success = false;
+        result.error = error;
+        return result;
+    }
+    
+    // Getters and Setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+    
+    public boolean isSuccess() { return success; }
+    public void setSuccess(boolean success) { this.success = success; }
+    
+    public Plant getPlant() { return plant; }
+    public void setPlant(Plant plant) { this.plant = plant; }
+    
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
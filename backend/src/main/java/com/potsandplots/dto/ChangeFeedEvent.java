@@ -0,0 +1,44 @@
+package com.potsandplots.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+public class ChangeFeedEvent {
+    private long sequence;
+    private String entityType;
+    private String changeType;
+    private Long entityId;
+    private Object data;
+    // Only subscribers to this garden are sent the change
+    @JsonIgnore
+    private String gardenId;
+    
+    // Constructors
+    public ChangeFeedEvent() {}
+    
+    public ChangeFeedEvent(long sequence, String entityType, String changeType, Long entityId, Object data) {
+        this.sequence = sequence;
+        this.entityType = entityType;
+        this.changeType = changeType;
+        this.entityId = entityId;
+        this.data = data;
+    }
+    
+    // Getters and Setters
+    public long getSequence() { return sequence; }
+    public void setSequence(long sequence) { this.sequence = sequence; }
+    
+    public String getEntityType() { return entityType; }
+    public void setEntityType(String entityType) { this.entityType = entityType; }
+    
+    public String getChangeType() { return changeType; }
+    public void setChangeType(String changeType) { this.changeType = changeType; }
+    
+    public Long getEntityId() { return entityId; }
+    public void setEntityId(Long entityId) { this.entityId = entityId; }
+    
+    public Object getData() { return data; }
+    public void setData(Object data) { this.data = data; }
+    
+    public String getGardenId() { return gardenId; }
+    public void setGardenId(String gardenId) { this.gardenId = gardenId; }
+}
@@ -0,0 +1,47 @@
+package com.potsandplots.dto;
+
+import com.potsandplots.model.Area;
+import com.potsandplots.model.Plant;
+import com.potsandplots.model.PlantType;
+import com.potsandplots.model.Plot;
+import java.util.List;
+
+public class DashboardSnapshot {
+    private List<Area> areas;
+    private List<Plot> plots;
+    private List<Plant> plants;
+    private List<PlantType> plantTypes;
+    private long changeSequence;
+    
+    // Constructors
+    public DashboardSnapshot() {}
+    
+    public DashboardSnapshot(List<Area> areas, List<Plot> plots, List<Plant> plants, List<PlantType> plantTypes) {
+        this.areas = areas;
+        this.plots = plots;
+        this.plants = plants;
+        this.plantTypes = plantTypes;
+    }
+    
+    public DashboardSnapshot(List<Area> areas, List<Plot> plots, List<Plant> plants, List<PlantType> plantTypes,
+                             long changeSequence) {
+        this(areas, plots, plants, plantTypes);
+        this.changeSequence = changeSequence;
+    }
+    
+    // Getters and Setters
+    public List<Area> getAreas() { return areas; }
+    public void setAreas(List<Area> areas) { this.areas = areas; }
+    
+    public List<Plot> getPlots() { return plots; }
+    public void setPlots(List<Plot> plots) { this.plots = plots; }
+    
+    public List<Plant> getPlants() { return plants; }
+    public void setPlants(List<Plant> plants) { this.plants = plants; }
+    
+    public List<PlantType> getPlantTypes() { return plantTypes; }
+    public void setPlantTypes(List<PlantType> plantTypes) { this.plantTypes = plantTypes; }
+    
+    public long getChangeSequence() { return changeSequence; }
+    public void setChangeSequence(long changeSequence) { this.changeSequence = changeSequence; }
+}
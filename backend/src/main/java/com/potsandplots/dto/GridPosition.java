@@ -0,0 +1,21 @@
+package com.potsandplots.dto;
+
+public class GridPosition {
+    private int x;
+    private int y;
+    
+    // Constructors
+    public GridPosition() {}
+    
+    public GridPosition(int x, int y) {
+        this.x = x;
+        this.y = y;
+    }
+    
+    // Getters and Setters
+    public int getX() { return x; }
+    public void setX(int x) { this.x = x; }
+    
+    public int getY() { return y; }
+    public void setY(int y) { this.y = y; }
+}
@@ -0,0 +1,36 @@
+package com.potsandplots.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportSummary {
+    private int areas;
+    private int plantTypes;
+    private int plots;
+    private long plants;
+    private long skipped;
+    // The first few reasons records were skipped, by line number
+    private List<String> errors = new ArrayList<>();
+    
+    // Constructors
+    public ImportSummary() {}
+    
+    // Getters and Setters
+    public int getAreas() { return areas; }
+    public void setAreas(int areas) { this.areas = areas; }
+    
+    public int getPlantTypes() { return plantTypes; }
+    public void setPlantTypes(int plantTypes) { this.plantTypes = plantTypes; }
+    
+    public int getPlots() { return plots; }
+    public void setPlots(int plots) { this.plots = plots; }
+    
+    public long getPlants() { return plants; }
+    public void setPlants(long plants) { this.plants = plants; }
+    
+    public long getSkipped() { return skipped; }
+    public void setSkipped(long skipped) { this.skipped = skipped; }
+    
+    public List<String> getErrors() { return errors; }
+    public void setErrors(List<String> errors) { this.errors = errors; }
+}
@@ -0,0 +1,43 @@
+package com.potsandplots.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What to lay out in a plot: existing plants to move in, and new plants to create
+ * by type and count.
+ */
+public class LayoutRequest {
+    private List<Long> plantIds = new ArrayList<>();
+    private List<Planting> plantings = new ArrayList<>();
+    
+    // Constructors
+    public LayoutRequest() {}
+    
+    // Getters and Setters
+    public List<Long> getPlantIds() { return plantIds; }
+    public void setPlantIds(List<Long> plantIds) { this.plantIds = plantIds; }
+    
+    public List<Planting> getPlantings() { return plantings; }
+    public void setPlantings(List<Planting> plantings) { this.plantings = plantings; }
+    
+    public static class Planting {
+        private Long speciesId;
+        private int count;
+        
+        // Constructors
+        public Planting() {}
+        
+        public Planting(Long speciesId, int count) {
+            this.speciesId = speciesId;
+            this.count = count;
+        }
+        
+        // Getters and Setters
+        public Long getSpeciesId() { return speciesId; }
+        public void setSpeciesId(Long speciesId) { this.speciesId = speciesId; }
+        
+        public int getCount() { return count; }
+        public void setCount(int count) { this.count = count; }
+    }
+}
@@ -0,0 +1,42 @@
+package com.potsandplots.dto;
+
+import java.util.List;
+
+/**
+ * The outcome of an auto-layout. Results are indexed like the request: its
+ * plantIds first, then one per plant of each planting.
+ */
+public class LayoutResult {
+    private Long plotId;
+    private boolean committed;
+    private int placed;
+    private int unplaced;
+    private List<BatchItemResult> results;
+    
+    // Constructors
+    public LayoutResult() {}
+    
+    public LayoutResult(Long plotId, boolean committed, int placed, int unplaced, List<BatchItemResult> results) {
+        this.plotId = plotId;
+        this.committed = committed;
+        this.placed = placed;
+        this.unplaced = unplaced;
+        this.results = results;
+    }
+    
+    // Getters and Setters
+    public Long getPlotId() { return plotId; }
+    public void setPlotId(Long plotId) { this.plotId = plotId; }
+    
+    public boolean isCommitted() { return committed; }
+    public void setCommitted(boolean committed) { this.committed = committed; }
+    
+    public int getPlaced() { return placed; }
+    public void setPlaced(int placed) { this.placed = placed; }
+    
+    public int getUnplaced() { return unplaced; }
+    public void setUnplaced(int unplaced) { this.unplaced = unplaced; }
+    
+    public List<BatchItemResult> getResults() { return results; }
+    public void setResults(List<BatchItemResult> results) { this.results = results; }
+}
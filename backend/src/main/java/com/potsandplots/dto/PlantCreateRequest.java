@@ -1,5 +1,7 @@
 package com.potsandplots.dto;
 
+import com.potsandplots.model.Plant;
+
 public class PlantCreateRequest {
     private String name;
     private Long speciesId;
@@ -8,6 +10,7 @@ public class PlantCreateRequest {
     private Integer positionX;
     private Integer positionY;
     private String notes;
+    private String wateringSchedule;
     
     // Constructors
     public PlantCreateRequest() {}
@@ -33,4 +36,17 @@ public class PlantCreateRequest {
     
     public String getNotes() { return notes; }
     public void setNotes(String notes) { this.notes = notes; }
+    
+    public String getWateringSchedule() { return wateringSchedule; }
+    public void setWateringSchedule(String wateringSchedule) { this.wateringSchedule = wateringSchedule; }
+    
+    public Plant toPlant() {
+        Plant plant = new Plant(name, speciesId, areaId);
+        plant.setPlotId(plotId);
+        plant.setPositionX(positionX);
+        plant.setPositionY(positionY);
+        plant.setNotes(notes);
+        plant.setWateringSchedule(wateringSchedule != null ? wateringSchedule : "weekly");
+        return plant;
+    }
 }
@@ -0,0 +1,36 @@
+package com.potsandplots.dto;
+
+public class PlantMoveRequest {
+    private Long plantId;
+    private Long areaId;
+    private Long plotId;
+    private Integer positionX;
+    private Integer positionY;
+    
+    // Constructors
+    public PlantMoveRequest() {}
+    
+    public PlantMoveRequest(Long plantId, Long areaId, Long plotId, Integer positionX, Integer positionY) {
+        this.plantId = plantId;
+        this.areaId = areaId;
+        this.plotId = plotId;
+        this.positionX = positionX;
+        this.positionY = positionY;
+    }
+    
+    // Getters and Setters
+    public Long getPlantId() { return plantId; }
+    public void setPlantId(Long plantId) { this.plantId = plantId; }
+    
+    public Long getAreaId() { return areaId; }
+    public void setAreaId(Long areaId) { this.areaId = areaId; }
+    
+    public Long getPlotId() { return plotId; }
+    public void setPlotId(Long plotId) { this.plotId = plotId; }
+    
+    public Integer getPositionX() { return positionX; }
+    public void setPositionX(Integer positionX) { this.positionX = positionX; }
+    
+    public Integer getPositionY() { return positionY; }
+    public void setPositionY(Integer positionY) { this.positionY = positionY; }
+}
@@ -0,0 +1,12 @@
+package com.potsandplots.dto;
+
+/**
+ * Minimal projection used to check and rebuild occupancy without loading whole plants.
+ */
+public interface PlantPosition {
+    Long getId();
+    Long getAreaId();
+    Long getPlotId();
+    Integer getPositionX();
+    Integer getPositionY();
+}
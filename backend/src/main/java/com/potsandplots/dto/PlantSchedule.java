@@ -0,0 +1,15 @@
+package com.potsandplots.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * The columns WateringQueue needs to schedule a plant.
+ */
+public interface PlantSchedule {
+    Long getId();
+    String getName();
+    LocalDate getPlantedDate();
+    String getWateringSchedule();
+    Instant getLastWatered();
+}
@@ -0,0 +1,20 @@
+package com.potsandplots.dto;
+
+import java.time.LocalDate;
+
+/**
+ * List-view projection of a plant. Leaves out the notes column so list queries
+ * neither select nor serialize it.
+ */
+public interface PlantSummary {
+    Long getId();
+    String getName();
+    Long getSpeciesId();
+    Long getAreaId();
+    Long getPlotId();
+    Integer getPositionX();
+    Integer getPositionY();
+    LocalDate getPlantedDate();
+    String getHealthStatus();
+    String getWateringSchedule();
+}
@@ -0,0 +1,50 @@
+package com.potsandplots.dto;
+
+/**
+ * A plot's grid as one flat array: {@code cells[y * width + x]} is the id of the
+ * plant in that cell, or 0 if it is free.
+ */
+public class PlotOccupancy {
+    private Long plotId;
+    private int width;
+    private int length;
+    private long[] cells;
+    private int occupiedCells;
+    private int freeCells;
+    private double fillRatio;
+    
+    // Constructors
+    public PlotOccupancy() {}
+    
+    public PlotOccupancy(Long plotId, int width, int length, long[] cells, int occupiedCells) {
+        this.plotId = plotId;
+        this.width = width;
+        this.length = length;
+        this.cells = cells;
+        this.occupiedCells = occupiedCells;
+        this.freeCells = cells.length - occupiedCells;
+        this.fillRatio = cells.length == 0 ? 0.0 : (double) occupiedCells / cells.length;
+    }
+    
+    // Getters and Setters
+    public Long getPlotId() { return plotId; }
+    public void setPlotId(Long plotId) { this.plotId = plotId; }
+    
+    public int getWidth() { return width; }
+    public void setWidth(int width) { this.width = width; }
+    
+    public int getLength() { return length; }
+    public void setLength(int length) { this.length = length; }
+    
+    public long[] getCells() { return cells; }
+    public void setCells(long[] cells) { this.cells = cells; }
+    
+    public int getOccupiedCells() { return occupiedCells; }
+    public void setOccupiedCells(int occupiedCells) { this.occupiedCells = occupiedCells; }
+    
+    public int getFreeCells() { return freeCells; }
+    public void setFreeCells(int freeCells) { this.freeCells = freeCells; }
+    
+    public double getFillRatio() { return fillRatio; }
+    public void setFillRatio(double fillRatio) { this.fillRatio = fillRatio; }
+}
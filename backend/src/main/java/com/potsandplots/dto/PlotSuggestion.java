@@ -0,0 +1,38 @@
+package com.potsandplots.dto;
+
+import java.util.List;
+
+public class PlotSuggestion {
+    private Long plotId;
+    private String plotName;
+    private Long areaId;
+    private double score;
+    private List<GridPosition> freeCells;
+    
+    // Constructors
+    public PlotSuggestion() {}
+    
+    public PlotSuggestion(Long plotId, String plotName, Long areaId, double score, List<GridPosition> freeCells) {
+        this.plotId = plotId;
+        this.plotName = plotName;
+        this.areaId = areaId;
+        this.score = score;
+        this.freeCells = freeCells;
+    }
+    
+    // Getters and Setters
+    public Long getPlotId() { return plotId; }
+    public void setPlotId(Long plotId) { this.plotId = plotId; }
+    
+    public String getPlotName() { return plotName; }
+    public void setPlotName(String plotName) { this.plotName = plotName; }
+    
+    public Long getAreaId() { return areaId; }
+    public void setAreaId(Long areaId) { this.areaId = areaId; }
+    
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+    
+    public List<GridPosition> getFreeCells() { return freeCells; }
+    public void setFreeCells(List<GridPosition> freeCells) { this.freeCells = freeCells; }
+}
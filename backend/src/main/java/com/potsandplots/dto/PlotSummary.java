@@ -0,0 +1,13 @@
+package com.potsandplots.dto;
+
+/**
+ * List-view projection of a plot: identity, placement and grid dimensions only.
+ */
+public interface PlotSummary {
+    Long getId();
+    String getName();
+    Long getAreaId();
+    String getPlotType();
+    Integer getWidth();
+    Integer getLength();
+}
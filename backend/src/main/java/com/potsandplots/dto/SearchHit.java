@@ -0,0 +1,31 @@
+package com.potsandplots.dto;
+
+public class SearchHit {
+    private String type;
+    private Long id;
+    private String name;
+    private float score;
+    
+    // Constructors
+    public SearchHit() {}
+    
+    public SearchHit(String type, Long id, String name, float score) {
+        this.type = type;
+        this.id = id;
+        this.name = name;
+        this.score = score;
+    }
+    
+    // Getters and Setters
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    
+    public float getScore() { return score; }
+    public void setScore(float score) { this.score = score; }
+}
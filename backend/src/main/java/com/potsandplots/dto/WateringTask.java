@@ -0,0 +1,33 @@
+package com.potsandplots.dto;
+
+import java.time.Instant;
+
+public class WateringTask {
+    private Long plantId;
+    private String plantName;
+    private String schedule;
+    private Instant dueAt;
+    
+    // Constructors
+    public WateringTask() {}
+    
+    public WateringTask(Long plantId, String plantName, String schedule, Instant dueAt) {
+        this.plantId = plantId;
+        this.plantName = plantName;
+        this.schedule = schedule;
+        this.dueAt = dueAt;
+    }
+    
+    // Getters and Setters
+    public Long getPlantId() { return plantId; }
+    public void setPlantId(Long plantId) { this.plantId = plantId; }
+    
+    public String getPlantName() { return plantName; }
+    public void setPlantName(String plantName) { this.plantName = plantName; }
+    
+    public String getSchedule() { return schedule; }
+    public void setSchedule(String schedule) { this.schedule = schedule; }
+    
+    public Instant getDueAt() { return dueAt; }
+    public void setDueAt(Instant dueAt) { this.dueAt = dueAt; }
+}
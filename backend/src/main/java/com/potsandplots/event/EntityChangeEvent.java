@@ -0,0 +1,71 @@
+package com.potsandplots.event;
+
+import com.potsandplots.config.GardenContext;
+import com.potsandplots.model.Plant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Published by the controllers after an entity has been written so that derived
+ * state (collection versions, caches, indexes) can be kept up to date. Each
+ * event carries the garden it was published in, so listeners running later or
+ * on another thread know whose state to update.
+ */
+public class EntityChangeEvent {
+
+    public enum EntityType { AREA, PLOT, PLANT, PLANT_TYPE }
+
+    public enum ChangeType { CREATED, UPDATED, MOVED, DELETED }
+
+    private final EntityType entityType;
+    private final ChangeType changeType;
+    private final Long entityId;
+    // What changed: the saved entity, a map of just the changed fields, or null for deletes
+    private final Object data;
+    private final String gardenId;
+
+    public EntityChangeEvent(EntityType entityType, ChangeType changeType, Long entityId) {
+        this(entityType, changeType, entityId, null);
+    }
+
+    public EntityChangeEvent(EntityType entityType, ChangeType changeType, Long entityId, Object data) {
+        this.entityType = entityType;
+        this.changeType = changeType;
+        this.entityId = entityId;
+        this.data = data;
+        this.gardenId = GardenContext.current();
+    }
+
+    /**
+     * A plant changed location. Only the location fields are carried along.
+     */
+    public static EntityChangeEvent plantMoved(Plant plant) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("areaId", plant.getAreaId());
+        fields.put("plotId", plant.getPlotId());
+        fields.put("positionX", plant.getPositionX());
+        fields.put("positionY", plant.getPositionY());
+        return new EntityChangeEvent(EntityType.PLANT, ChangeType.MOVED, plant.getId(), fields);
+    }
+
+    /**
+     * A plant was made free-standing because its plot was deleted.
+     */
+    public static EntityChangeEvent plantDetached(Long plantId) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("plotId", null);
+        fields.put("positionX", null);
+        fields.put("positionY", null);
+        return new EntityChangeEvent(EntityType.PLANT, ChangeType.MOVED, plantId, fields);
+    }
+
+    public EntityType getEntityType() { return entityType; }
+
+    public ChangeType getChangeType() { return changeType; }
+
+    public Long getEntityId() { return entityId; }
+
+    public Object getData() { return data; }
+
+    public String getGardenId() { return gardenId; }
+}
@@ -0,0 +1,31 @@
+package com.potsandplots.event;
+
+/**
+ * Published whenever a placement is rejected because its target position is taken,
+ * so rejections can be counted without every write path knowing about metrics.
+ */
+public class PositionConflictEvent {
+
+    // PLOT: a cell of a plot's grid; AREA: a free-standing position within an area
+    public enum Scope { PLOT, AREA }
+
+    private final Scope scope;
+    private final Long containerId;
+    private final int positionX;
+    private final int positionY;
+
+    public PositionConflictEvent(Scope scope, Long containerId, int positionX, int positionY) {
+        this.scope = scope;
+        this.containerId = containerId;
+        this.positionX = positionX;
+        this.positionY = positionY;
+    }
+
+    public Scope getScope() { return scope; }
+
+    public Long getContainerId() { return containerId; }
+
+    public int getPositionX() { return positionX; }
+
+    public int getPositionY() { return positionY; }
+}
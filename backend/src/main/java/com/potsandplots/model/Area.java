@@ -1,11 +1,17 @@
 package com.potsandplots.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.TenantId;
 
 @Entity
-@Table(name = "areas")
+@Table(name = "areas", indexes = @Index(name = "idx_areas_garden", columnList = "garden_id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "areas")
 public class Area {
     
     @Id
@@ -32,6 +38,15 @@ public class Area {
     @Column(nullable = false)
     private String brightness;
     
+    // Tenant column, see Plant
+    @TenantId
+    @JsonIgnore
+    @Column(name = "garden_id", nullable = false, updatable = false, length = 64)
+    private String gardenId;
+    
+    @Version
+    private Long version;
+    
     // Constructors
     public Area() {}
     
@@ -61,4 +76,10 @@ public class Area {
     
     public String getBrightness() { return brightness; }
     public void setBrightness(String brightness) { this.brightness = brightness; }
+    
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
+    public String getGardenId() { return gardenId; }
+    public void setGardenId(String gardenId) { this.gardenId = gardenId; }
 }
@@ -1,16 +1,29 @@
 package com.potsandplots.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.TenantId;
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "plants")
+// The unique constraint's index also serves plot_id lookups
+@Table(name = "plants", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_plants_plot_position", columnNames = {"plot_id", "position_x", "position_y"})
+}, indexes = {
+    @Index(name = "idx_plants_area_position", columnList = "area_id, position_x, position_y"),
+    @Index(name = "idx_plants_area_plot", columnList = "area_id, plot_id"),
+    @Index(name = "idx_plants_area_id", columnList = "garden_id, area_id, id"),
+    @Index(name = "idx_plants_garden", columnList = "garden_id, id")
+})
 public class Plant {
     
+    // A pooled sequence rather than IDENTITY, so that inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "plant_seq")
+    @SequenceGenerator(name = "plant_seq", sequenceName = "plant_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank
@@ -46,6 +59,18 @@ public class Plant {
     @Column(name = "watering_schedule")
     private String wateringSchedule;
     
+    @Column(name = "last_watered")
+    private Instant lastWatered;
+    
+    // The garden the row belongs to; Hibernate sets it on insert and adds it to every query
+    @TenantId
+    @JsonIgnore
+    @Column(name = "garden_id", nullable = false, updatable = false, length = 64)
+    private String gardenId;
+    
+    @Version
+    private Long version;
+    
     // Constructors
     public Plant() {}
     
@@ -90,4 +115,13 @@ public class Plant {
     
     public String getWateringSchedule() { return wateringSchedule; }
     public void setWateringSchedule(String wateringSchedule) { this.wateringSchedule = wateringSchedule; }
+    
+    public Instant getLastWatered() { return lastWatered; }
+    public void setLastWatered(Instant lastWatered) { this.lastWatered = lastWatered; }
+    
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
+    public String getGardenId() { return gardenId; }
+    public void setGardenId(String gardenId) { this.gardenId = gardenId; }
 }
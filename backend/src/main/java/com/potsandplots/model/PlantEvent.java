@@ -0,0 +1,80 @@
+package com.potsandplots.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * One entry of the append-only plant history written by PlantEventLog. Rows are
+ * never updated; old ones are only ever rolled up (deleted) by compaction.
+ */
+@Entity
+@Table(name = "plant_events", indexes = {
+    @Index(name = "idx_plant_events_plant_time", columnList = "plant_id, occurred_at"),
+    @Index(name = "idx_plant_events_area_time", columnList = "area_id, occurred_at")
+})
+public class PlantEvent {
+    
+    // Pooled like plants, so each flushed batch is a single JDBC batch insert
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "plant_event_seq")
+    @SequenceGenerator(name = "plant_event_seq", sequenceName = "plant_event_seq", allocationSize = 100)
+    private Long id;
+    
+    @Column(name = "plant_id", nullable = false)
+    private Long plantId;
+    
+    @Column(name = "area_id")
+    private Long areaId;
+    
+    // Written by a background thread for every garden, so a plain column rather than
+    // a @TenantId one; readers filter on it themselves
+    @JsonIgnore
+    @Column(name = "garden_id", nullable = false, length = 64)
+    private String gardenId;
+    
+    @Column(name = "change_type", nullable = false, length = 16)
+    private String changeType;
+    
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+    
+    // The fields the change set, as a JSON object; null for deletes
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+    
+    // Constructors
+    public PlantEvent() {}
+    
+    public PlantEvent(Long plantId, Long areaId, String changeType, Instant occurredAt, String payload) {
+        this.plantId = plantId;
+        this.areaId = areaId;
+        this.changeType = changeType;
+        this.occurredAt = occurredAt;
+        this.payload = payload;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getPlantId() { return plantId; }
+    public void setPlantId(Long plantId) { this.plantId = plantId; }
+    
+    public Long getAreaId() { return areaId; }
+    public void setAreaId(Long areaId) { this.areaId = areaId; }
+    
+    public String getGardenId() { return gardenId; }
+    public void setGardenId(String gardenId) { this.gardenId = gardenId; }
+    
+    public String getChangeType() { return changeType; }
+    public void setChangeType(String changeType) { this.changeType = changeType; }
+    
+    public Instant getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(Instant occurredAt) { this.occurredAt = occurredAt; }
+    
+    @JsonRawValue
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+}
@@ -1,11 +1,17 @@
 package com.potsandplots.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.TenantId;
 
 @Entity
-@Table(name = "plant_types")
+@Table(name = "plant_types", indexes = @Index(name = "idx_plant_types_garden", columnList = "garden_id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "plant_types")
 public class PlantType {
     
     @Id
@@ -31,10 +37,23 @@ public class PlantType {
     @Column(name = "image_url")
     private String imageUrl;
     
+    // Grid cells to keep clear around each plant of this type; null means none
+    @Column(name = "spacing")
+    private Integer spacing;
+    
     @NotNull
     @Column(name = "is_edible", nullable = false)
     private Boolean isEdible;
     
+    // Tenant column, see Plant
+    @TenantId
+    @JsonIgnore
+    @Column(name = "garden_id", nullable = false, updatable = false, length = 64)
+    private String gardenId;
+    
+    @Version
+    private Long version;
+    
     // Constructors
     public PlantType() {}
     
@@ -66,6 +85,15 @@ public class PlantType {
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
     
+    public Integer getSpacing() { return spacing; }
+    public void setSpacing(Integer spacing) { this.spacing = spacing; }
+    
     public Boolean getIsEdible() { return isEdible; }
     public void setIsEdible(Boolean isEdible) { this.isEdible = isEdible; }
+    
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
+    public String getGardenId() { return gardenId; }
+    public void setGardenId(String gardenId) { this.gardenId = gardenId; }
 }
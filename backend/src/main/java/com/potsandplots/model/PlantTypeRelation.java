@@ -0,0 +1,67 @@
+package com.potsandplots.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.TenantId;
+
+/**
+ * A planting rule between two plant types: companions do well next to each
+ * other, antagonists should be kept apart. Rules apply in both directions.
+ */
+@Entity
+@Table(name = "plant_type_relations", uniqueConstraints =
+    @UniqueConstraint(name = "uk_plant_type_relations_pair", columnNames = {"plant_type_id", "other_type_id"}))
+public class PlantTypeRelation {
+    
+    public static final String COMPANION = "companion";
+    public static final String ANTAGONIST = "antagonist";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @NotNull
+    @Column(name = "plant_type_id", nullable = false)
+    private Long plantTypeId;
+    
+    @NotNull
+    @Column(name = "other_type_id", nullable = false)
+    private Long otherTypeId;
+    
+    @NotBlank
+    @Column(nullable = false, length = 16)
+    private String relation;
+    
+    // Tenant column, see Plant
+    @TenantId
+    @JsonIgnore
+    @Column(name = "garden_id", nullable = false, updatable = false, length = 64)
+    private String gardenId;
+    
+    // Constructors
+    public PlantTypeRelation() {}
+    
+    public PlantTypeRelation(Long plantTypeId, Long otherTypeId, String relation) {
+        this.plantTypeId = plantTypeId;
+        this.otherTypeId = otherTypeId;
+        this.relation = relation;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getPlantTypeId() { return plantTypeId; }
+    public void setPlantTypeId(Long plantTypeId) { this.plantTypeId = plantTypeId; }
+    
+    public Long getOtherTypeId() { return otherTypeId; }
+    public void setOtherTypeId(Long otherTypeId) { this.otherTypeId = otherTypeId; }
+    
+    public String getRelation() { return relation; }
+    public void setRelation(String relation) { this.relation = relation; }
+    
+    public String getGardenId() { return gardenId; }
+    public void setGardenId(String gardenId) { this.gardenId = gardenId; }
+}
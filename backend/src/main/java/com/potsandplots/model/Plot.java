@@ -1,12 +1,17 @@
 package com.potsandplots.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import org.hibernate.annotations.TenantId;
 
 @Entity
-@Table(name = "plots")
+@Table(name = "plots", indexes = {
+    @Index(name = "idx_plots_area", columnList = "area_id"),
+    @Index(name = "idx_plots_garden", columnList = "garden_id, id")
+})
 public class Plot {
     
     @Id
@@ -42,6 +47,15 @@ public class Plot {
     @Column(name = "ph")
     private Double ph;
     
+    // Tenant column, see Plant
+    @TenantId
+    @JsonIgnore
+    @Column(name = "garden_id", nullable = false, updatable = false, length = 64)
+    private String gardenId;
+    
+    @Version
+    private Long version;
+    
     // Constructors
     public Plot() {}
     
@@ -80,4 +94,10 @@ public class Plot {
     
     public Double getPh() { return ph; }
     public void setPh(Double ph) { this.ph = ph; }
+    
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
+    public String getGardenId() { return gardenId; }
+    public void setGardenId(String gardenId) { this.gardenId = gardenId; }
 }
@@ -1,9 +1,38 @@
 package com.potsandplots.repository;
 
+import com.potsandplots.config.CacheConfig;
 import com.potsandplots.model.Area;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AreaRepository extends JpaRepository<Area, Long> {
+
+    @Override
+    @Cacheable(CacheConfig.AREAS)
+    List<Area> findAll();
+
+    // A query rather than EntityManager.find, so the garden restriction applies to it too
+    @Override
+    @Cacheable(CacheConfig.AREAS)
+    @Query("select a from Area a where a.id = :id")
+    Optional<Area> findById(@Param("id") Long id);
+
+    @Override
+    @CacheEvict(value = CacheConfig.AREAS, allEntries = true)
+    <S extends Area> S save(S entity);
+
+    @Override
+    @CacheEvict(value = CacheConfig.AREAS, allEntries = true)
+    <S extends Area> List<S> saveAll(Iterable<S> entities);
+
+    @Override
+    @CacheEvict(value = CacheConfig.AREAS, allEntries = true)
+    void deleteById(Long id);
 }
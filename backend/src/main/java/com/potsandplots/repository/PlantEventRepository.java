@@ -0,0 +1,38 @@
+package com.potsandplots.repository;
+
+import com.potsandplots.model.PlantEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PlantEventRepository extends JpaRepository<PlantEvent, Long> {
+    // PlantEvent is not a @TenantId entity, so readers name the garden explicitly
+    List<PlantEvent> findByGardenIdAndPlantIdAndOccurredAtGreaterThanEqualAndOccurredAtLessThanOrderByIdAsc(
+            String gardenId, Long plantId, Instant from, Instant to, Pageable pageable);
+    List<PlantEvent> findByGardenIdAndAreaIdAndOccurredAtGreaterThanEqualAndOccurredAtLessThanOrderByIdAsc(
+            String gardenId, Long areaId, Instant from, Instant to, Pageable pageable);
+    
+    @Query("select e.areaId from PlantEvent e where e.plantId = :plantId and e.areaId is not null order by e.id desc limit 1")
+    Optional<Long> findLastAreaId(@Param("plantId") Long plantId);
+    
+    // Rolls up history older than the cutoff: of a plant's updates (or moves) on the same
+    // day only the last is kept, since it carries the state the plant ended the day in
+    @Modifying
+    @Transactional
+    @Query(value = "delete from plant_events e where e.occurred_at < :cutoff " +
+                   "and e.change_type in ('UPDATED', 'MOVED') and exists (" +
+                   "select 1 from plant_events later where later.plant_id = e.plant_id " +
+                   "and later.change_type = e.change_type and later.id > e.id " +
+                   "and later.occurred_at < :cutoff " +
+                   "and cast(later.occurred_at as date) = cast(e.occurred_at as date))",
+           nativeQuery = true)
+    int rollUpBefore(@Param("cutoff") Instant cutoff);
+}
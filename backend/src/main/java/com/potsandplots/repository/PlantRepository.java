@@ -1,14 +1,63 @@
 package com.potsandplots.repository;
 
 import com.potsandplots.model.Plant;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PlantRepository extends JpaRepository<Plant, Long> {
+    // A query rather than EntityManager.find, so the garden restriction applies to it too
+    @Override
+    @Query("select p from Plant p where p.id = :id")
+    Optional<Plant> findById(@Param("id") Long id);
+    
     List<Plant> findByAreaId(Long areaId);
     List<Plant> findByPlotId(Long plotId);
     List<Plant> findByAreaIdAndPlotIdIsNull(Long areaId);
     List<Plant> findByAreaIdAndPositionXAndPositionY(Long areaId, Integer positionX, Integer positionY);
+    <T> List<T> findByPlotId(Long plotId, Class<T> type);
+    <T> List<T> findAllBy(Class<T> type);
+    <T> List<T> findByAreaIdInAndPositionXIsNotNullAndPositionYIsNotNull(Collection<Long> areaIds, Class<T> type);
+    
+    @Query("select p.id from Plant p where p.plotId = :plotId")
+    List<Long> findIdsByPlotId(@Param("plotId") Long plotId);
+    
+    // Makes every plant of the plot free-standing in a single statement
+    @Modifying
+    @Query("update Plant p set p.plotId = null, p.positionX = null, p.positionY = null, " +
+           "p.version = p.version + 1 where p.plotId = :plotId")
+    int detachFromPlot(@Param("plotId") Long plotId);
+    
+    // A cursor over every plant for exports; the caller must hold a transaction and detach what it has read
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select p from Plant p order by p.id")
+    Stream<Plant> streamAll();
+    
+    // Every garden with plants or plant types; native, so not restricted to the current one
+    @Query(value = "select garden_id from plants union select garden_id from plant_types", nativeQuery = true)
+    List<String> findAllGardenIds();
+    
+    // Changes whenever a plant or plant type in any garden is added, updated or deleted
+    @Query(value = "select concat((select count(*) from plants), ':', (select coalesce(max(id), 0) from plants), ':', " +
+                   "(select coalesce(sum(version), 0) from plants), ':', (select count(*) from plant_types), ':', " +
+                   "(select coalesce(max(id), 0) from plant_types), ':', (select coalesce(sum(version), 0) from plant_types))",
+           nativeQuery = true)
+    String findSearchFingerprint();
+    
+    // Keyset pages, projected onto either Plant or PlantSummary
+    <T> List<T> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable, Class<T> type);
+    <T> List<T> findByAreaIdAndIdGreaterThanOrderByIdAsc(Long areaId, Long afterId, Pageable pageable, Class<T> type);
+    <T> List<T> findByPlotIdAndIdGreaterThanOrderByIdAsc(Long plotId, Long afterId, Pageable pageable, Class<T> type);
 }
@@ -0,0 +1,20 @@
+package com.potsandplots.repository;
+
+import com.potsandplots.model.PlantTypeRelation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PlantTypeRelationRepository extends JpaRepository<PlantTypeRelation, Long> {
+    
+    // Rules are symmetric, so a type's rules are those naming it on either side
+    @Query("select r from PlantTypeRelation r where r.plantTypeId = :typeId or r.otherTypeId = :typeId")
+    List<PlantTypeRelation> findInvolving(@Param("typeId") Long typeId);
+    
+    @Query("select r from PlantTypeRelation r where r.plantTypeId in :typeIds or r.otherTypeId in :typeIds")
+    List<PlantTypeRelation> findInvolvingAny(@Param("typeIds") Collection<Long> typeIds);
+}
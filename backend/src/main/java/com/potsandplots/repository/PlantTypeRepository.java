@@ -1,9 +1,38 @@
 package com.potsandplots.repository;
 
+import com.potsandplots.config.CacheConfig;
 import com.potsandplots.model.PlantType;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PlantTypeRepository extends JpaRepository<PlantType, Long> {
+
+    @Override
+    @Cacheable(CacheConfig.PLANT_TYPES)
+    List<PlantType> findAll();
+
+    // A query rather than EntityManager.find, so the garden restriction applies to it too
+    @Override
+    @Cacheable(CacheConfig.PLANT_TYPES)
+    @Query("select t from PlantType t where t.id = :id")
+    Optional<PlantType> findById(@Param("id") Long id);
+
+    @Override
+    @CacheEvict(value = CacheConfig.PLANT_TYPES, allEntries = true)
+    <S extends PlantType> S save(S entity);
+
+    @Override
+    @CacheEvict(value = CacheConfig.PLANT_TYPES, allEntries = true)
+    <S extends PlantType> List<S> saveAll(Iterable<S> entities);
+
+    @Override
+    @CacheEvict(value = CacheConfig.PLANT_TYPES, allEntries = true)
+    void deleteById(Long id);
 }
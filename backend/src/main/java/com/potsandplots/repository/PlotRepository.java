@@ -1,11 +1,35 @@
 package com.potsandplots.repository;
 
 import com.potsandplots.model.Plot;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PlotRepository extends JpaRepository<Plot, Long> {
+    // See PlantRepository.findById
+    @Override
+    @Query("select p from Plot p where p.id = :id")
+    Optional<Plot> findById(@Param("id") Long id);
+    
     List<Plot> findByAreaId(Long areaId);
+    <T> List<T> findByAreaIdOrderByIdAsc(Long areaId, Class<T> type);
+    
+    // A cursor over every plot for exports; the caller must hold a transaction and detach what it has read
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select p from Plot p order by p.id")
+    Stream<Plot> streamAll();
+    
+    // Keyset pages, projected onto either Plot or PlotSummary
+    <T> List<T> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable, Class<T> type);
+    <T> List<T> findByAreaIdAndIdGreaterThanOrderByIdAsc(Long areaId, Long afterId, Pageable pageable, Class<T> type);
 }
@@ -0,0 +1,240 @@
+package com.potsandplots.service;
+
+import com.potsandplots.dto.BatchItemResult;
+import com.potsandplots.dto.LayoutRequest;
+import com.potsandplots.dto.LayoutResult;
+import com.potsandplots.event.EntityChangeEvent;
+import com.potsandplots.event.EntityChangeEvent.ChangeType;
+import com.potsandplots.event.EntityChangeEvent.EntityType;
+import com.potsandplots.model.Plant;
+import com.potsandplots.model.PlantType;
+import com.potsandplots.model.PlantTypeRelation;
+import com.potsandplots.model.Plot;
+import com.potsandplots.repository.PlantRepository;
+import com.potsandplots.repository.PlantTypeRelationRepository;
+import com.potsandplots.repository.PlantTypeRepository;
+import com.potsandplots.repository.PlotRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Places a set of plants in a plot automatically, using {@link LayoutPlanner}
+ * with each plant type's spacing and companion/antagonist rules.
+ * <p>
+ * Plants already in the plot keep their cells. The layout is computed and
+ * written in one transaction, with every chosen cell reserved in the occupancy
+ * index first, so it either lands as a whole or not at all. Plants that did not
+ * fit are reported and left untouched.
+ */
+@Service
+public class AutoLayoutService {
+
+    static final long SEARCH_BUDGET_MS = 100;
+
+    @Autowired
+    private PlotRepository plotRepository;
+
+    @Autowired
+    private PlantRepository plantRepository;
+
+    @Autowired
+    private PlantTypeRepository plantTypeRepository;
+
+    @Autowired
+    private PlantTypeRelationRepository relationRepository;
+
+    @Autowired
+    private PlotOccupancyIndex occupancyIndex;
+
+    @Autowired
+    private PlantLocks plantLocks;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Lays out the requested plants in the plot, or empty if the plot does not exist.
+     *
+     * @param commit false to only compute the layout
+     * @throws PositionConflictException if another write took a chosen cell meanwhile
+     */
+    public Optional<LayoutResult> layout(Long plotId, LayoutRequest request, boolean commit) {
+        Plot plot = plotRepository.findById(plotId).orElse(null);
+        if (plot == null) {
+            return Optional.empty();
+        }
+        List<Long> plantIds = request.getPlantIds() != null ? request.getPlantIds() : List.of();
+        List<LayoutRequest.Planting> plantings = request.getPlantings() != null ? request.getPlantings() : List.of();
+        long total = plantIds.size();
+        for (LayoutRequest.Planting planting : plantings) {
+            if (planting.getSpeciesId() == null || planting.getCount() < 0) {
+                throw new IllegalArgumentException("Each planting needs a speciesId and a count of zero or more");
+            }
+            total += planting.getCount();
+        }
+        if (total > PlantBatchService.MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A layout may contain at most " + PlantBatchService.MAX_BATCH_SIZE + " plants");
+        }
+        final int count = (int) total;
+        Set<Long> lockedIds = new HashSet<>(plantIds);
+        lockedIds.remove(null);
+        return Optional.of(plantLocks.withLocks(lockedIds, () -> layoutLocked(plot, plantIds, plantings, count, commit)));
+    }
+
+    private LayoutResult layoutLocked(Plot plot, List<Long> plantIds, List<LayoutRequest.Planting> plantings,
+                                      int total, boolean commit) {
+        BatchItemResult[] results = new BatchItemResult[total];
+        List<Plant> placedPlants = new ArrayList<>();
+        List<Boolean> created = new ArrayList<>();
+        List<PlotOccupancyIndex.Reservation> reservations = new ArrayList<>();
+
+        try {
+            // Moved plants stay managed for the whole transaction, so their changes are flushed as batched updates
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Long, PlantType> types = new HashMap<>();
+                for (PlantType plantType : plantTypeRepository.findAll()) {
+                    types.put(plantType.getId(), plantType);
+                }
+                Map<Long, Plant> plantsById = new HashMap<>();
+                for (Plant plant : plantRepository.findAllById(plantIds.stream().filter(Objects::nonNull).toList())) {
+                    plantsById.put(plant.getId(), plant);
+                }
+
+                List<Integer> indexes = new ArrayList<>();
+                List<Plant> toPlace = new ArrayList<>();
+                List<Boolean> isNew = new ArrayList<>();
+                Set<Long> seen = new HashSet<>();
+                for (int i = 0; i < plantIds.size(); i++) {
+                    Plant plant = plantsById.get(plantIds.get(i));
+                    if (plant == null) {
+                        results[i] = BatchItemResult.failed(i, "Plant not found");
+                    } else if (!seen.add(plant.getId())) {
+                        results[i] = BatchItemResult.failed(i, "Plant appears more than once in the request");
+                    } else if (plot.getId().equals(plant.getPlotId()) && plant.getPositionX() != null && plant.getPositionY() != null) {
+                        // Already placed in this plot; it stays put and the others are laid out around it
+                        results[i] = BatchItemResult.succeeded(i, plant);
+                    } else {
+                        indexes.add(i);
+                        toPlace.add(plant);
+                        isNew.add(false);
+                    }
+                }
+                int index = plantIds.size();
+                for (LayoutRequest.Planting planting : plantings) {
+                    PlantType plantType = types.get(planting.getSpeciesId());
+                    for (int k = 0; k < planting.getCount(); k++, index++) {
+                        if (plantType == null) {
+                            results[index] = BatchItemResult.failed(index, "Plant type not found");
+                            continue;
+                        }
+                        Plant plant = new Plant(plantType.getCommonName(), plantType.getId(), plot.getAreaId());
+                        plant.setWateringSchedule("weekly");
+                        indexes.add(index);
+                        toPlace.add(plant);
+                        isNew.add(true);
+                    }
+                }
+
+                List<Plant> fixed = plantRepository.findByPlotId(plot.getId());
+                LayoutPlanner planner = planner(plot, fixed, toPlace, types);
+                List<LayoutPlanner.Piece> pieces = new ArrayList<>(toPlace.size());
+                for (Plant plant : toPlace) {
+                    pieces.add(piece(plant, types));
+                }
+                for (Plant plant : fixed) {
+                    // Requested plants from this plot without a cell are among those to place
+                    if (plant.getPositionX() != null && plant.getPositionY() != null) {
+                        planner.fix(piece(plant, types), plant.getPositionX(), plant.getPositionY());
+                    }
+                }
+                int[] cells = planner.plan(pieces, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SEARCH_BUDGET_MS));
+
+                List<Plant> newPlants = new ArrayList<>();
+                for (int j = 0; j < cells.length; j++) {
+                    int i = indexes.get(j);
+                    if (cells[j] < 0) {
+                        results[i] = BatchItemResult.failed(i, "No room left in the plot");
+                        continue;
+                    }
+                    Plant plant = toPlace.get(j);
+                    int x = cells[j] % plot.getWidth();
+                    int y = cells[j] / plot.getWidth();
+                    if (commit) {
+                        reservations.add(occupancyIndex.reserve(plot.getId(), x, y, plant.getId()));
+                    }
+                    plant.setAreaId(plot.getAreaId());
+                    plant.setPlotId(plot.getId());
+                    plant.setPositionX(x);
+                    plant.setPositionY(y);
+                    placedPlants.add(plant);
+                    created.add(isNew.get(j));
+                    if (isNew.get(j)) {
+                        newPlants.add(plant);
+                    }
+                    results[i] = BatchItemResult.succeeded(i, plant);
+                }
+                if (commit) {
+                    plantRepository.saveAll(newPlants);
+                } else {
+                    status.setRollbackOnly();
+                }
+            });
+        } catch (RuntimeException e) {
+            reservations.forEach(PlotOccupancyIndex.Reservation::cancel);
+            throw e;
+        }
+
+        if (commit) {
+            for (int j = 0; j < placedPlants.size(); j++) {
+                Plant plant = placedPlants.get(j);
+                reservations.get(j).commit(plant.getId());
+                eventPublisher.publishEvent(created.get(j)
+                        ? new EntityChangeEvent(EntityType.PLANT, ChangeType.CREATED, plant.getId(), plant)
+                        : EntityChangeEvent.plantMoved(plant));
+            }
+        }
+        int placed = (int) Arrays.stream(results).filter(BatchItemResult::isSuccess).count();
+        return new LayoutResult(plot.getId(), commit, placed, total - placed, Arrays.asList(results));
+    }
+
+    private LayoutPlanner planner(Plot plot, List<Plant> fixed, List<Plant> toPlace, Map<Long, PlantType> types) {
+        Set<Long> typeIds = new HashSet<>();
+        fixed.forEach(plant -> typeIds.add(plant.getSpeciesId()));
+        toPlace.forEach(plant -> typeIds.add(plant.getSpeciesId()));
+        typeIds.remove(null);
+        Map<Long, Set<Long>> companions = new HashMap<>();
+        Map<Long, Set<Long>> antagonists = new HashMap<>();
+        if (!typeIds.isEmpty()) {
+            for (PlantTypeRelation relation : relationRepository.findInvolvingAny(typeIds)) {
+                Map<Long, Set<Long>> rules = PlantTypeRelation.ANTAGONIST.equals(relation.getRelation()) ? antagonists
+                        : PlantTypeRelation.COMPANION.equals(relation.getRelation()) ? companions : null;
+                if (rules != null) {
+                    rules.computeIfAbsent(relation.getPlantTypeId(), id -> new HashSet<>()).add(relation.getOtherTypeId());
+                    rules.computeIfAbsent(relation.getOtherTypeId(), id -> new HashSet<>()).add(relation.getPlantTypeId());
+                }
+            }
+        }
+        return new LayoutPlanner(plot.getWidth(), plot.getLength(), companions, antagonists);
+    }
+
+    private static LayoutPlanner.Piece piece(Plant plant, Map<Long, PlantType> types) {
+        PlantType plantType = types.get(plant.getSpeciesId());
+        int spacing = plantType != null && plantType.getSpacing() != null ? plantType.getSpacing() : 0;
+        return new LayoutPlanner.Piece(plant.getSpeciesId() != null ? plant.getSpeciesId() : -1L, spacing);
+    }
+}
@@ -0,0 +1,89 @@
+package com.potsandplots.service;
+
+import com.potsandplots.model.Area;
+import com.potsandplots.model.PlantType;
+import com.potsandplots.model.Plot;
+import java.util.Locale;
+
+/**
+ * Turns the free-text care fields of plant types, and the site fields of plots
+ * and their areas, into vectors on a common 0..1 scale so the two can be
+ * compared. Each dimension is paired with a flag saying whether the text said
+ * anything about it; unknown dimensions are left out of the comparison.
+ */
+final class CareFeatures {
+
+    static final int LIGHT = 0;
+    static final int DRAINAGE = 1;
+    static final int MOISTURE = 2;
+    static final int FERTILITY = 3;
+    static final int PH = 4;
+    static final int DIMENSIONS = 5;
+
+    // How much each dimension counts towards the score
+    static final double[] WEIGHTS = {3.0, 2.0, 2.0, 1.0, 0.5};
+
+    // Plant types don't state a pH; most garden plants do best around 6.5
+    private static final double PREFERRED_PH = 6.5;
+
+    private static final double UNKNOWN = Double.NaN;
+
+    private CareFeatures() {}
+
+    /**
+     * The conditions a plant type asks for. NaN marks a dimension its text doesn't cover.
+     */
+    static double[] ofPlantType(PlantType plantType) {
+        double[] features = new double[DIMENSIONS];
+        String light = text(plantType.getLightRequirements());
+        String water = text(plantType.getWaterRequirements());
+        String soil = text(plantType.getSoilRequirements());
+
+        features[LIGHT] = firstMatch(light, "full sun", 1.0, "partial", 0.6, "bright", 0.65,
+                "low", 0.3, "shade", 0.2, "moderate", 0.5);
+        features[DRAINAGE] = firstMatch(soil, "well-drain", 1.0, "well drain", 1.0, "sandy", 0.9, "moist", 0.35);
+        features[MOISTURE] = firstMatch(water, "drought", 0.2, "infrequent", 0.2, "dry between", 0.35,
+                "frequent", 0.85, "moist", 0.85, "regular", 0.6, "weekly", 0.45);
+        features[FERTILITY] = firstMatch(soil, "rich", 0.9, "fertile", 0.9, "sandy", 0.25, "poor", 0.25,
+                "potting", 0.7);
+        features[PH] = normalizePh(PREFERRED_PH);
+        return features;
+    }
+
+    /**
+     * The conditions a plot offers, taking light from its area.
+     */
+    static double[] ofPlot(Plot plot, Area area) {
+        double[] features = new double[DIMENSIONS];
+        String soil = text(plot.getSoilType()).replace('_', ' ');
+
+        features[LIGHT] = area == null ? UNKNOWN
+                : firstMatch(text(area.getBrightness()), "high", 1.0, "medium", 0.6, "low", 0.3);
+        features[DRAINAGE] = firstMatch(text(plot.getDrainageLevel()), "excellent", 1.0, "good", 0.8,
+                "moderate", 0.55, "fair", 0.55, "average", 0.55, "poor", 0.25);
+        features[MOISTURE] = firstMatch(soil, "sandy loam", 0.4, "sand", 0.2, "clay", 0.85, "peat", 0.8,
+                "silt", 0.7, "loam", 0.6, "potting", 0.5);
+        features[FERTILITY] = firstMatch(soil, "compost", 1.0, "sandy loam", 0.55, "sand", 0.2, "loam", 0.8,
+                "peat", 0.7, "clay", 0.6, "silt", 0.7, "potting", 0.7);
+        features[PH] = plot.getPh() != null ? normalizePh(plot.getPh()) : UNKNOWN;
+        return features;
+    }
+
+    private static double normalizePh(double ph) {
+        return Math.max(0.0, Math.min(1.0, (ph - 4.0) / 6.0));
+    }
+
+    private static String text(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    // Pairs of (phrase, value); the first phrase found in the text wins
+    private static double firstMatch(String text, Object... phrasesAndValues) {
+        for (int i = 0; i < phrasesAndValues.length; i += 2) {
+            if (text.contains((String) phrasesAndValues[i])) {
+                return (Double) phrasesAndValues[i + 1];
+            }
+        }
+        return UNKNOWN;
+    }
+}
@@ -0,0 +1,185 @@
+package com.potsandplots.service;
+
+import com.potsandplots.config.GardenContext;
+import com.potsandplots.dto.ChangeFeedEvent;
+import com.potsandplots.event.EntityChangeEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Numbers every entity change and streams it to server-sent event subscribers.
+ * The most recent changes are kept so that a client reconnecting with the last
+ * event id it saw only receives what it missed. Event ids are
+ * {@code epoch:sequence}, where the epoch changes on every start because the
+ * sequence starts again from 1. A client that is too far behind, or whose id
+ * comes from a previous run, gets a "reset" event and should reload.
+ * Subscribers only hear about changes in the garden they subscribed from; the
+ * sequence is shared, so theirs has gaps where other gardens changed.
+ *
+ * All sends happen on a single dispatcher thread, in sequence order, so a slow
+ * subscriber never holds up the write that produced the change.
+ */
+@Component
+public class ChangeFeed {
+
+    static final int HISTORY_SIZE = 1000;
+
+    private static final long SUBSCRIPTION_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final ArrayDeque<ChangeFeedEvent> history = new ArrayDeque<>();
+    private long sequence;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @EventListener
+    public void onEntityChange(EntityChangeEvent event) {
+        synchronized (history) {
+            ChangeFeedEvent change = new ChangeFeedEvent(++sequence, event.getEntityType().name(),
+                    event.getChangeType().name(), event.getEntityId(), event.getData());
+            change.setGardenId(event.getGardenId());
+            history.addLast(change);
+            if (history.size() > HISTORY_SIZE) {
+                history.removeFirst();
+            }
+            // Submitted under the lock so deliveries are queued in sequence order
+            dispatcher.execute(() -> deliver(change));
+        }
+    }
+
+    public long getSequence() {
+        synchronized (history) {
+            return sequence;
+        }
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Opens a stream of changes after the event id {@code lastEventId}, or of new
+     * changes only when it is null. A bare sequence, as dashboard snapshots give,
+     * is taken to be from this run.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(SUBSCRIPTION_TIMEOUT_MS);
+        Subscriber subscriber = new Subscriber(emitter, GardenContext.current());
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        dispatcher.execute(() -> start(subscriber, lastEventId));
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    // Runs on the dispatcher thread, so no delivery can interleave with the replay
+    private void start(Subscriber subscriber, String lastEventId) {
+        boolean resuming = lastEventId != null && !lastEventId.isBlank();
+        Long lastSequence = resuming ? sequenceOf(lastEventId) : null;
+        List<ChangeFeedEvent> missed = new ArrayList<>();
+        long current;
+        boolean reset;
+        synchronized (history) {
+            current = sequence;
+            long oldest = history.isEmpty() ? sequence + 1 : history.peekFirst().getSequence();
+            reset = resuming && (lastSequence == null || lastSequence > current || lastSequence < oldest - 1);
+            if (resuming && !reset) {
+                for (ChangeFeedEvent change : history) {
+                    if (change.getSequence() > lastSequence && subscriber.gardenId.equals(change.getGardenId())) {
+                        missed.add(change);
+                    }
+                }
+            }
+        }
+        try {
+            subscriber.emitter.send(SseEmitter.event()
+                    .id(eventId(current))
+                    .name(reset ? "reset" : "ready")
+                    .data(current));
+            for (ChangeFeedEvent change : missed) {
+                send(subscriber, change);
+            }
+        } catch (IOException | IllegalStateException e) {
+            subscriber.emitter.completeWithError(e);
+            return;
+        }
+        subscriber.lastSent = current;
+        subscribers.add(subscriber);
+    }
+
+    private void deliver(ChangeFeedEvent change) {
+        for (Subscriber subscriber : subscribers) {
+            // Already sent as part of the subscriber's replay, or someone else's garden
+            if (change.getSequence() <= subscriber.lastSent || !subscriber.gardenId.equals(change.getGardenId())) {
+                continue;
+            }
+            try {
+                send(subscriber, change);
+                subscriber.lastSent = change.getSequence();
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(subscriber);
+                subscriber.emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private void send(Subscriber subscriber, ChangeFeedEvent change) throws IOException {
+        subscriber.emitter.send(SseEmitter.event()
+                .id(eventId(change.getSequence()))
+                .name("change")
+                .data(change, MediaType.APPLICATION_JSON));
+    }
+
+    private String eventId(long sequence) {
+        return epoch + ":" + sequence;
+    }
+
+    // The sequence in an event id, or null when this run never issued it
+    private Long sequenceOf(String eventId) {
+        int colon = eventId.indexOf(':');
+        if (colon >= 0 && !epoch.equals(eventId.substring(0, colon))) {
+            return null;
+        }
+        try {
+            return Long.valueOf(eventId.substring(colon + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final String gardenId;
+        // Only touched on the dispatcher thread
+        private long lastSent;
+
+        Subscriber(SseEmitter emitter, String gardenId) {
+            this.emitter = emitter;
+            this.gardenId = gardenId;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.potsandplots.service;
+
+import com.potsandplots.config.GardenContext;
+import com.potsandplots.event.EntityChangeEvent;
+import com.potsandplots.event.EntityChangeEvent.EntityType;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a change counter per entity collection so that read endpoints can answer
+ * "has anything changed?" without touching the database.
+ */
+@Component
+public class ChangeTracker {
+
+    // Distinguishes counters from a previous run, since they restart at zero on boot
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<EntityType, AtomicLong> versions = new EnumMap<>(EntityType.class);
+
+    public ChangeTracker() {
+        for (EntityType type : EntityType.values()) {
+            versions.put(type, new AtomicLong());
+        }
+    }
+
+    @EventListener
+    public void onEntityChange(EntityChangeEvent event) {
+        versions.get(event.getEntityType()).incrementAndGet();
+    }
+
+    public long getVersion(EntityType type) {
+        return versions.get(type).get();
+    }
+
+    /**
+     * Builds an ETag value covering the given collections in the current garden.
+     * Any write to one of them produces a different value. The counters are
+     * shared by all gardens, so a write in one also changes the others' ETags.
+     */
+    public String etag(EntityType... types) {
+        StringBuilder etag = new StringBuilder("\"").append(epoch).append('-').append(GardenContext.current());
+        for (EntityType type : types) {
+            etag.append('-').append(getVersion(type));
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * Builds an ETag value for a single entity from its {@code @Version} column.
+     */
+    public String etag(EntityType type, Long id, Long version) {
+        return "\"" + epoch + "-" + type.name().toLowerCase() + "-" + id + "-" + version + "\"";
+    }
+}
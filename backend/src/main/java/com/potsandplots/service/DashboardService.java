@@ -0,0 +1,46 @@
+package com.potsandplots.service;
+
+import com.potsandplots.dto.DashboardSnapshot;
+import com.potsandplots.repository.AreaRepository;
+import com.potsandplots.repository.PlantRepository;
+import com.potsandplots.repository.PlantTypeRepository;
+import com.potsandplots.repository.PlotRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class DashboardService {
+
+    @Autowired
+    private AreaRepository areaRepository;
+
+    @Autowired
+    private PlotRepository plotRepository;
+
+    @Autowired
+    private PlantRepository plantRepository;
+
+    @Autowired
+    private PlantTypeRepository plantTypeRepository;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    /**
+     * Loads everything the dashboard renders in a single read-only transaction,
+     * so the four collections are consistent with each other. The change sequence is
+     * read first: resuming the change feed from it may replay a change the snapshot
+     * already contains, but never skips one.
+     */
+    @Transactional(readOnly = true)
+    public DashboardSnapshot getSnapshot() {
+        long changeSequence = changeFeed.getSequence();
+        return new DashboardSnapshot(
+                areaRepository.findAll(),
+                plotRepository.findAll(),
+                plantRepository.findAll(),
+                plantTypeRepository.findAll(),
+                changeSequence);
+    }
+}
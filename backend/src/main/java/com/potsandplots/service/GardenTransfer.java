@@ -0,0 +1,329 @@
+package com.potsandplots.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.potsandplots.dto.ImportSummary;
+import com.potsandplots.event.EntityChangeEvent;
+import com.potsandplots.event.EntityChangeEvent.ChangeType;
+import com.potsandplots.event.EntityChangeEvent.EntityType;
+import com.potsandplots.model.Area;
+import com.potsandplots.model.Plant;
+import com.potsandplots.model.PlantType;
+import com.potsandplots.model.Plot;
+import com.potsandplots.repository.AreaRepository;
+import com.potsandplots.repository.PlantRepository;
+import com.potsandplots.repository.PlantTypeRepository;
+import com.potsandplots.repository.PlotRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Exports a whole garden as NDJSON and imports one back.
+ * <p>
+ * Every line is {@code {"type": ..., "data": {...}}} with the entity as the API
+ * serializes it, in dependency order: areas, plant types, plots, plants. Plots
+ * and plants are read through a database cursor and detached once written, so
+ * an export holds one fetch of rows at a time however big the garden is.
+ * <p>
+ * An import gives every record a new id and rewrites the references to it.
+ * Plant types matching an existing one by common and latin name are reused
+ * rather than copied. Plants are inserted {@value #IMPORT_BATCH} per transaction;
+ * only the id maps of areas, plant types and plots are kept, so memory does not
+ * grow with the number of plants. Records that can't be imported (unknown
+ * references, taken cells, values the database rejects) are skipped and
+ * reported; when the database rejects a batch of plants, its plants are saved
+ * one at a time to find the bad ones.
+ * Any other failure, such as losing the database, ends the import with an error
+ * and keeps what was saved before it.
+ */
+@Service
+public class GardenTransfer {
+
+    public static final String TYPE_AREA = "area";
+    public static final String TYPE_PLANT_TYPE = "plantType";
+    public static final String TYPE_PLOT = "plot";
+    public static final String TYPE_PLANT = "plant";
+
+    static final int IMPORT_BATCH = 1000;
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    @Autowired
+    private AreaRepository areaRepository;
+
+    @Autowired
+    private PlantTypeRepository plantTypeRepository;
+
+    @Autowired
+    private PlotRepository plotRepository;
+
+    @Autowired
+    private PlantRepository plantRepository;
+
+    @Autowired
+    private PlotOccupancyIndex occupancyIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public void exportTo(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        for (Area area : areaRepository.findAll()) {
+            writeLine(generator, TYPE_AREA, area);
+        }
+        for (PlantType plantType : plantTypeRepository.findAll()) {
+            writeLine(generator, TYPE_PLANT_TYPE, plantType);
+        }
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<Plot> plots = plotRepository.streamAll()) {
+                plots.forEach(plot -> writeAndDetach(generator, TYPE_PLOT, plot));
+            }
+            try (Stream<Plant> plants = plantRepository.streamAll()) {
+                plants.forEach(plant -> writeAndDetach(generator, TYPE_PLANT, plant));
+            }
+        });
+        generator.flush();
+    }
+
+    public ImportSummary importFrom(InputStream in) throws IOException {
+        Import state = new Import();
+        try (MappingIterator<JsonNode> lines = objectMapper.readerFor(JsonNode.class).readValues(in)) {
+            while (lines.hasNextValue()) {
+                JsonNode line = lines.nextValue();
+                state.line++;
+                try {
+                    importLine(state, line.path("type").asText(), line.path("data"));
+                } catch (IllegalArgumentException | ConstraintViolationException e) {
+                    state.skip(e.getMessage());
+                } catch (DataIntegrityViolationException e) {
+                    state.skip(e.getMostSpecificCause().getMessage());
+                } catch (JsonProcessingException e) {
+                    state.skip(e.getOriginalMessage());
+                }
+            }
+        }
+        state.flushPlants();
+        return state.summary;
+    }
+
+    private void importLine(Import state, String type, JsonNode data) throws IOException {
+        if (!data.isObject()) {
+            throw new IllegalArgumentException("no data object");
+        }
+        switch (type) {
+            case TYPE_AREA -> {
+                Area area = objectMapper.treeToValue(data, Area.class);
+                Long oldId = area.getId();
+                area.setId(null);
+                area.setVersion(null);
+                Area saved = areaRepository.save(area);
+                state.areaIds.put(oldId, saved.getId());
+                state.summary.setAreas(state.summary.getAreas() + 1);
+                eventPublisher.publishEvent(new EntityChangeEvent(EntityType.AREA, ChangeType.CREATED, saved.getId(), saved));
+            }
+            case TYPE_PLANT_TYPE -> {
+                PlantType plantType = objectMapper.treeToValue(data, PlantType.class);
+                Long oldId = plantType.getId();
+                PlantType existing = state.existingPlantTypes().get(plantTypeKey(plantType));
+                if (existing != null) {
+                    state.plantTypeIds.put(oldId, existing.getId());
+                    return;
+                }
+                plantType.setId(null);
+                plantType.setVersion(null);
+                PlantType saved = plantTypeRepository.save(plantType);
+                state.plantTypeIds.put(oldId, saved.getId());
+                state.summary.setPlantTypes(state.summary.getPlantTypes() + 1);
+                eventPublisher.publishEvent(new EntityChangeEvent(EntityType.PLANT_TYPE, ChangeType.CREATED, saved.getId(), saved));
+            }
+            case TYPE_PLOT -> {
+                Plot plot = objectMapper.treeToValue(data, Plot.class);
+                Long oldId = plot.getId();
+                plot.setId(null);
+                plot.setVersion(null);
+                plot.setAreaId(remap(state.areaIds, plot.getAreaId(), "area"));
+                Plot saved = plotRepository.save(plot);
+                state.plotIds.put(oldId, saved.getId());
+                state.summary.setPlots(state.summary.getPlots() + 1);
+                eventPublisher.publishEvent(new EntityChangeEvent(EntityType.PLOT, ChangeType.CREATED, saved.getId(), saved));
+            }
+            case TYPE_PLANT -> {
+                Plant plant = objectMapper.treeToValue(data, Plant.class);
+                if (plant.getName() == null || plant.getName().isBlank()) {
+                    throw new IllegalArgumentException("plant has no name");
+                }
+                plant.setId(null);
+                plant.setVersion(null);
+                plant.setAreaId(remap(state.areaIds, plant.getAreaId(), "area"));
+                plant.setSpeciesId(remap(state.plantTypeIds, plant.getSpeciesId(), "plant type"));
+                if (plant.getPlotId() != null) {
+                    plant.setPlotId(remap(state.plotIds, plant.getPlotId(), "plot"));
+                }
+                state.addPlant(plant);
+            }
+            default -> throw new IllegalArgumentException("unknown record type '" + type + "'");
+        }
+    }
+
+    private static Long remap(Map<Long, Long> ids, Long oldId, String what) {
+        Long newId = ids.get(oldId);
+        if (newId == null) {
+            throw new IllegalArgumentException("refers to " + what + " " + oldId + ", which is not in the file");
+        }
+        return newId;
+    }
+
+    private static String plantTypeKey(PlantType plantType) {
+        return Objects.toString(plantType.getCommonName(), "").toLowerCase(Locale.ROOT) + "|"
+                + Objects.toString(plantType.getLatinName(), "").toLowerCase(Locale.ROOT);
+    }
+
+    private void writeAndDetach(JsonGenerator generator, String type, Object entity) {
+        try {
+            writeLine(generator, type, entity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        entityManager.detach(entity);
+    }
+
+    private void writeLine(JsonGenerator generator, String type, Object entity) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", type);
+        generator.writeObjectField("data", entity);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    /**
+     * The progress of one import: id maps, the plants waiting for the next batch
+     * and the summary so far.
+     */
+    private class Import {
+        final ImportSummary summary = new ImportSummary();
+        final Map<Long, Long> areaIds = new HashMap<>();
+        final Map<Long, Long> plantTypeIds = new HashMap<>();
+        final Map<Long, Long> plotIds = new HashMap<>();
+        final List<Plant> plants = new ArrayList<>(IMPORT_BATCH);
+        final List<Long> plantLines = new ArrayList<>(IMPORT_BATCH);
+        final List<PlotOccupancyIndex.Reservation> reservations = new ArrayList<>(IMPORT_BATCH);
+        Map<String, PlantType> existingPlantTypes;
+        long line;
+
+        Map<String, PlantType> existingPlantTypes() {
+            if (existingPlantTypes == null) {
+                existingPlantTypes = new HashMap<>();
+                for (PlantType plantType : plantTypeRepository.findAll()) {
+                    existingPlantTypes.putIfAbsent(plantTypeKey(plantType), plantType);
+                }
+            }
+            return existingPlantTypes;
+        }
+
+        void addPlant(Plant plant) {
+            PlotOccupancyIndex.Reservation reservation = null;
+            if (plant.getPlotId() != null && plant.getPositionX() != null && plant.getPositionY() != null) {
+                try {
+                    reservation = occupancyIndex.reserve(plant.getPlotId(), plant.getPositionX(), plant.getPositionY(), null);
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException(e.getMessage());
+                }
+            }
+            plants.add(plant);
+            plantLines.add(line);
+            reservations.add(reservation);
+            if (plants.size() == IMPORT_BATCH) {
+                flushPlants();
+            }
+        }
+
+        void flushPlants() {
+            if (plants.isEmpty()) {
+                return;
+            }
+            try {
+                try {
+                    List<Plant> saved = transactionTemplate.execute(status -> plantRepository.saveAll(plants));
+                    for (int i = 0; i < saved.size(); i++) {
+                        added(i, saved.get(i));
+                    }
+                } catch (DataIntegrityViolationException e) {
+                    // Something in the batch was rejected; save the plants one per transaction to find it
+                    for (int i = 0; i < plants.size(); i++) {
+                        Plant plant = plants.get(i);
+                        // The rolled back insert left these set
+                        plant.setId(null);
+                        plant.setVersion(null);
+                        try {
+                            added(i, transactionTemplate.execute(status -> plantRepository.save(plant)));
+                        } catch (DataIntegrityViolationException rejected) {
+                            PlotOccupancyIndex.Reservation reservation = reservations.set(i, null);
+                            if (reservation != null) {
+                                reservation.cancel();
+                            }
+                            skip(plantLines.get(i), rejected.getMostSpecificCause().getMessage());
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                reservations.stream().filter(Objects::nonNull).forEach(PlotOccupancyIndex.Reservation::cancel);
+                throw e;
+            } finally {
+                plants.clear();
+                plantLines.clear();
+                reservations.clear();
+            }
+        }
+
+        private void added(int index, Plant plant) {
+            PlotOccupancyIndex.Reservation reservation = reservations.set(index, null);
+            if (reservation != null) {
+                reservation.commit(plant.getId());
+            }
+            eventPublisher.publishEvent(new EntityChangeEvent(EntityType.PLANT, ChangeType.CREATED, plant.getId(), plant));
+            summary.setPlants(summary.getPlants() + 1);
+        }
+
+        void skip(String reason) {
+            skip(line, reason);
+        }
+
+        void skip(long atLine, String reason) {
+            summary.setSkipped(summary.getSkipped() + 1);
+            if (summary.getErrors().size() < MAX_REPORTED_ERRORS) {
+                summary.getErrors().add("line " + atLine + ": " + reason);
+            }
+        }
+    }
+}
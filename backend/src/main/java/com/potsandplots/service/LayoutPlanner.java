@@ -0,0 +1,308 @@
+package com.potsandplots.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Packs plants onto a plot's width × length grid.
+ * <p>
+ * Two plants must be further apart (in Chebyshev distance, so diagonals count
+ * as one) than the larger of their spacings, and antagonists further apart than
+ * {@value #ANTAGONIST_DISTANCE}. A plant prefers cells next to a companion and
+ * otherwise takes the first free cell in row-major order, widest spacing first.
+ * <p>
+ * Every constraint is kept as a bitset over the cells: the cells each placed
+ * plant's spacing rules out, the cells within each requested spacing of any
+ * plant, and the neighbourhood of each plant type. Finding a cell for a plant is
+ * then a few word-wide ORs and a scan for the first clear bit. When that greedy
+ * pass leaves plants out and there are no more than {@value #MAX_SEARCH_ITEMS}
+ * of them, a branch-and-bound search tries the first few cells for each plant,
+ * or leaving it out, until it places them all or runs out of time.
+ */
+final class LayoutPlanner {
+
+    static final int ANTAGONIST_DISTANCE = 2;
+    static final int COMPANION_DISTANCE = 1;
+    static final int MAX_SEARCH_ITEMS = 200;
+    private static final int BRANCHING = 3;
+
+    /**
+     * A plant to lay out, or one already in the plot.
+     */
+    static final class Piece {
+        final long typeId;
+        final int spacing;
+
+        Piece(long typeId, int spacing) {
+            this.typeId = typeId;
+            this.spacing = Math.max(spacing, 0);
+        }
+    }
+
+    private final int width;
+    private final int length;
+    private final int cellCount;
+    private final int words;
+    private final Map<Long, Set<Long>> companions;
+    private final Map<Long, Set<Long>> antagonists;
+    private final List<Piece> fixedPieces = new ArrayList<>();
+    private final List<Integer> fixedCells = new ArrayList<>();
+
+    // Branch-and-bound progress
+    private List<Piece> pieces;
+    private Integer[] order;
+    private int[] best;
+    private int bestPlaced;
+    private int[] current;
+    private long deadline;
+
+    /**
+     * @param companions the companion types of each type; both directions must be present
+     * @param antagonists the antagonist types of each type; both directions must be present
+     */
+    LayoutPlanner(int width, int length, Map<Long, Set<Long>> companions, Map<Long, Set<Long>> antagonists) {
+        this.width = width;
+        this.length = length;
+        this.cellCount = width * length;
+        this.words = (cellCount + 63) >>> 6;
+        this.companions = companions;
+        this.antagonists = antagonists;
+    }
+
+    /**
+     * Records a plant that is already in the plot and stays where it is.
+     */
+    void fix(Piece piece, int x, int y) {
+        if (x >= 0 && y >= 0 && x < width && y < length) {
+            fixedPieces.add(piece);
+            fixedCells.add(y * width + x);
+        }
+    }
+
+    /**
+     * Lays out the pieces around the fixed ones.
+     *
+     * @param deadlineNanos the {@link System#nanoTime()} after which the search keeps the best layout so far
+     * @return for each piece, in order, its cell as {@code y * width + x}, or -1 if it did not fit
+     */
+    int[] plan(List<Piece> pieces, long deadlineNanos) {
+        this.pieces = pieces;
+        this.deadline = deadlineNanos;
+        int n = pieces.size();
+        order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        // Wide plants are the hardest to fit, so they go first; grouping by type keeps companions together
+        Arrays.sort(order, Comparator.<Integer>comparingInt(i -> -pieces.get(i).spacing)
+                .thenComparingLong(i -> pieces.get(i).typeId));
+
+        State start = new State(pieces);
+        for (int i = 0; i < fixedPieces.size(); i++) {
+            start.place(fixedPieces.get(i), fixedCells.get(i));
+        }
+
+        best = new int[n];
+        Arrays.fill(best, -1);
+        bestPlaced = 0;
+        State greedy = start.copy();
+        int[] cell = new int[1];
+        for (int i : order) {
+            if (greedy.candidates(pieces.get(i), cell, 1) == 1) {
+                greedy.place(pieces.get(i), cell[0]);
+                best[i] = cell[0];
+                bestPlaced++;
+            }
+        }
+
+        if (bestPlaced < n && n <= MAX_SEARCH_ITEMS) {
+            current = new int[n];
+            Arrays.fill(current, -1);
+            search(0, start, 0);
+        }
+        return best;
+    }
+
+    private void search(int depth, State state, int placed) {
+        if (placed > bestPlaced) {
+            bestPlaced = placed;
+            best = current.clone();
+        }
+        int remaining = pieces.size() - depth;
+        if (remaining == 0 || bestPlaced == pieces.size() || System.nanoTime() > deadline) {
+            return;
+        }
+        // Each remaining plant needs a cell no placed plant's spacing has ruled out
+        if (placed + Math.min(remaining, state.openCells()) <= bestPlaced) {
+            return;
+        }
+        int index = order[depth];
+        Piece piece = pieces.get(index);
+        int[] cells = new int[BRANCHING];
+        int count = state.candidates(piece, cells, BRANCHING);
+        for (int k = 0; k < count; k++) {
+            State next = state.copy();
+            next.place(piece, cells[k]);
+            current[index] = cells[k];
+            search(depth + 1, next, placed + 1);
+            if (bestPlaced == pieces.size()) {
+                return;
+            }
+        }
+        current[index] = -1;
+        search(depth + 1, state, placed);
+    }
+
+    /**
+     * The constraints left by the plants placed so far.
+     */
+    private final class State {
+        // Cells ruled out by a placed plant's own spacing
+        final long[] excluded;
+        // For each spacing requested, the cells within that distance of a placed plant
+        final Map<Integer, long[]> nearBySpacing;
+        // For each type with antagonists, the cells within ANTAGONIST_DISTANCE of one of its plants
+        final Map<Long, long[]> antagonistZones;
+        // For each type with companions, the cells within COMPANION_DISTANCE of one of its plants
+        final Map<Long, long[]> companionZones;
+
+        State(List<Piece> pieces) {
+            excluded = new long[words];
+            nearBySpacing = new HashMap<>();
+            for (Piece piece : pieces) {
+                nearBySpacing.computeIfAbsent(piece.spacing, spacing -> new long[words]);
+            }
+            antagonistZones = new HashMap<>();
+            companionZones = new HashMap<>();
+        }
+
+        private State(State other) {
+            excluded = other.excluded.clone();
+            nearBySpacing = copyOf(other.nearBySpacing);
+            antagonistZones = copyOf(other.antagonistZones);
+            companionZones = copyOf(other.companionZones);
+        }
+
+        State copy() {
+            return new State(this);
+        }
+
+        void place(Piece piece, int cell) {
+            int x = cell % width;
+            int y = cell / width;
+            fillSquare(excluded, x, y, piece.spacing);
+            for (Map.Entry<Integer, long[]> near : nearBySpacing.entrySet()) {
+                fillSquare(near.getValue(), x, y, near.getKey());
+            }
+            if (antagonists.containsKey(piece.typeId)) {
+                fillSquare(antagonistZones.computeIfAbsent(piece.typeId, type -> new long[words]), x, y, ANTAGONIST_DISTANCE);
+            }
+            if (companions.containsKey(piece.typeId)) {
+                fillSquare(companionZones.computeIfAbsent(piece.typeId, type -> new long[words]), x, y, COMPANION_DISTANCE);
+            }
+        }
+
+        /**
+         * Writes up to {@code max} cells the piece may take into {@code out}, cells
+         * next to a companion first, and returns how many it wrote.
+         */
+        int candidates(Piece piece, int[] out, int max) {
+            long[] blocked = excluded.clone();
+            or(blocked, nearBySpacing.get(piece.spacing));
+            for (Long other : antagonists.getOrDefault(piece.typeId, Set.of())) {
+                or(blocked, antagonistZones.get(other));
+            }
+            long[] preferred = null;
+            for (Long other : companions.getOrDefault(piece.typeId, Set.of())) {
+                long[] zone = companionZones.get(other);
+                if (zone != null) {
+                    if (preferred == null) {
+                        preferred = new long[words];
+                    }
+                    or(preferred, zone);
+                }
+            }
+            int found = 0;
+            if (preferred != null) {
+                found = collect(blocked, preferred, false, out, found, max);
+            }
+            return collect(blocked, preferred, true, out, found, max);
+        }
+
+        // Collects clear cells of blocked that are (or, with outside set, are not) in the zone
+        private int collect(long[] blocked, long[] zone, boolean outside, int[] out, int found, int max) {
+            for (int w = 0; w < words && found < max; w++) {
+                long open = ~blocked[w] & validBits(w);
+                if (zone != null) {
+                    open &= outside ? ~zone[w] : zone[w];
+                }
+                while (open != 0 && found < max) {
+                    out[found++] = (w << 6) + Long.numberOfTrailingZeros(open);
+                    open &= open - 1;
+                }
+            }
+            return found;
+        }
+
+        int openCells() {
+            int open = 0;
+            for (int w = 0; w < words; w++) {
+                open += Long.bitCount(~excluded[w] & validBits(w));
+            }
+            return open;
+        }
+    }
+
+    private long validBits(int word) {
+        int rest = cellCount - (word << 6);
+        return rest >= 64 ? -1L : (1L << rest) - 1;
+    }
+
+    // Sets every cell within Chebyshev distance r of (x, y)
+    private void fillSquare(long[] bits, int x, int y, int r) {
+        int fromX = Math.max(0, x - r);
+        int toX = Math.min(width - 1, x + r);
+        for (int row = Math.max(0, y - r); row <= Math.min(length - 1, y + r); row++) {
+            setRange(bits, row * width + fromX, row * width + toX + 1);
+        }
+    }
+
+    // Sets bits [from, to), as java.util.BitSet does
+    private static void setRange(long[] bits, int from, int to) {
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            bits[first] |= firstMask & lastMask;
+            return;
+        }
+        bits[first] |= firstMask;
+        for (int w = first + 1; w < last; w++) {
+            bits[w] = -1L;
+        }
+        bits[last] |= lastMask;
+    }
+
+    private static void or(long[] into, long[] bits) {
+        if (bits == null) {
+            return;
+        }
+        for (int w = 0; w < into.length; w++) {
+            into[w] |= bits[w];
+        }
+    }
+
+    private static <K> Map<K, long[]> copyOf(Map<K, long[]> bitsets) {
+        Map<K, long[]> copy = new HashMap<>(bitsets.size() * 2);
+        for (Map.Entry<K, long[]> entry : bitsets.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue().clone());
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,33 @@
+package com.potsandplots.service;
+
+import com.potsandplots.event.PositionConflictEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Counts placements rejected because their position was taken, as
+ * plants.position.conflicts tagged with the scope of the check.
+ */
+@Component
+public class PlacementMetrics {
+
+    private final Map<PositionConflictEvent.Scope, Counter> conflicts = new EnumMap<>(PositionConflictEvent.Scope.class);
+
+    public PlacementMetrics(MeterRegistry meterRegistry) {
+        for (PositionConflictEvent.Scope scope : PositionConflictEvent.Scope.values()) {
+            conflicts.put(scope, Counter.builder("plants.position.conflicts")
+                    .description("Plant placements rejected because the position was already taken")
+                    .tag("scope", scope.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @EventListener
+    public void onPositionConflict(PositionConflictEvent event) {
+        conflicts.get(event.getScope()).increment();
+    }
+}
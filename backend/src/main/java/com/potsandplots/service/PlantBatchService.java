@@ -0,0 +1,240 @@
+package com.potsandplots.service;
+
+import com.potsandplots.dto.BatchItemResult;
+import com.potsandplots.dto.PlantCreateRequest;
+import com.potsandplots.dto.PlantMoveRequest;
+import com.potsandplots.dto.PlantPosition;
+import com.potsandplots.event.EntityChangeEvent;
+import com.potsandplots.event.EntityChangeEvent.ChangeType;
+import com.potsandplots.event.EntityChangeEvent.EntityType;
+import com.potsandplots.event.PositionConflictEvent;
+import com.potsandplots.model.Plant;
+import com.potsandplots.repository.PlantRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates or moves many plants in one request. Every item is validated against the
+ * occupancy index first; the valid ones are then written in a single transaction so
+ * Hibernate can batch the statements, and each item reports its own outcome.
+ */
+@Service
+public class PlantBatchService {
+
+    public static final int MAX_BATCH_SIZE = 10_000;
+
+    @Autowired
+    private PlantRepository plantRepository;
+
+    @Autowired
+    private PlotOccupancyIndex occupancyIndex;
+
+    @Autowired
+    private PlantLocks plantLocks;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public List<BatchItemResult> createPlants(List<PlantCreateRequest> requests) {
+        checkBatchSize(requests.size());
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        List<Integer> indexes = new ArrayList<>();
+        List<Plant> plants = new ArrayList<>();
+        List<PlotOccupancyIndex.Reservation> reservations = new ArrayList<>();
+        Set<String> takenAreaPositions = loadAreaPositions(requests);
+
+        for (int i = 0; i < requests.size(); i++) {
+            PlantCreateRequest request = requests.get(i);
+            if (request.getName() == null || request.getName().trim().isEmpty()
+                    || request.getSpeciesId() == null || request.getAreaId() == null) {
+                results[i] = BatchItemResult.failed(i, "name, speciesId and areaId are required");
+                continue;
+            }
+            try {
+                reservations.add(reservePosition(request.getAreaId(), request.getPlotId(),
+                        request.getPositionX(), request.getPositionY(), takenAreaPositions));
+            } catch (RuntimeException e) {
+                results[i] = BatchItemResult.failed(i, e.getMessage());
+                continue;
+            }
+            indexes.add(i);
+            plants.add(request.toPlant());
+        }
+
+        List<Plant> savedPlants;
+        try {
+            savedPlants = plantRepository.saveAll(plants);
+        } catch (RuntimeException e) {
+            cancelAll(reservations);
+            throw e;
+        }
+
+        for (int j = 0; j < savedPlants.size(); j++) {
+            Plant plant = savedPlants.get(j);
+            if (reservations.get(j) != null) {
+                reservations.get(j).commit(plant.getId());
+            }
+            results[indexes.get(j)] = BatchItemResult.succeeded(indexes.get(j), plant);
+            eventPublisher.publishEvent(new EntityChangeEvent(EntityType.PLANT, ChangeType.CREATED, plant.getId(), plant));
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Applies several moves at once. A null plotId makes the plant free-standing, and a
+     * move to another plot without a position leaves the plant unplaced in that plot. A
+     * move cannot target a cell that another move in the same batch is vacating.
+     */
+    public List<BatchItemResult> movePlants(List<PlantMoveRequest> requests) {
+        checkBatchSize(requests.size());
+        Set<Long> plantIds = requests.stream()
+                .map(PlantMoveRequest::getPlantId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return plantLocks.withLocks(plantIds, () -> applyMoves(requests, plantIds));
+    }
+
+    private List<BatchItemResult> applyMoves(List<PlantMoveRequest> requests, Set<Long> plantIds) {
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        List<Integer> indexes = new ArrayList<>();
+        List<Plant> movedPlants = new ArrayList<>();
+        List<PlotOccupancyIndex.Reservation> reservations = new ArrayList<>();
+
+        try {
+            // Plants stay managed for the whole transaction, so the changes are flushed as batched updates
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Long, Plant> plantsById = new HashMap<>();
+                for (Plant plant : plantRepository.findAllById(plantIds)) {
+                    plantsById.put(plant.getId(), plant);
+                }
+                Set<Long> seen = new HashSet<>();
+
+                for (int i = 0; i < requests.size(); i++) {
+                    PlantMoveRequest request = requests.get(i);
+                    Plant plant = plantsById.get(request.getPlantId());
+                    if (plant == null) {
+                        results[i] = BatchItemResult.failed(i, "Plant not found");
+                        continue;
+                    }
+                    if (!seen.add(plant.getId())) {
+                        results[i] = BatchItemResult.failed(i, "Plant appears more than once in the batch");
+                        continue;
+                    }
+                    PlotOccupancyIndex.Reservation reservation = null;
+                    if (request.getPlotId() != null && request.getPositionX() != null && request.getPositionY() != null) {
+                        try {
+                            reservation = occupancyIndex.reserve(request.getPlotId(), request.getPositionX(),
+                                                                 request.getPositionY(), plant.getId());
+                        } catch (RuntimeException e) {
+                            results[i] = BatchItemResult.failed(i, e.getMessage());
+                            continue;
+                        }
+                    }
+                    reservations.add(reservation);
+                    if (request.getAreaId() != null) {
+                        plant.setAreaId(request.getAreaId());
+                    }
+                    if (reservation != null) {
+                        plant.setPositionX(request.getPositionX());
+                        plant.setPositionY(request.getPositionY());
+                    } else if (!Objects.equals(request.getPlotId(), plant.getPlotId())) {
+                        // The old cell means nothing in another plot (or outside one)
+                        plant.setPositionX(null);
+                        plant.setPositionY(null);
+                    }
+                    plant.setPlotId(request.getPlotId());
+                    indexes.add(i);
+                    movedPlants.add(plant);
+                }
+            });
+        } catch (RuntimeException e) {
+            cancelAll(reservations);
+            throw e;
+        }
+
+        for (int j = 0; j < movedPlants.size(); j++) {
+            Plant plant = movedPlants.get(j);
+            PlotOccupancyIndex.Reservation reservation = reservations.get(j);
+            if (reservation != null) {
+                reservation.commit(plant.getId());
+            } else if (plant.getPlotId() != null && plant.getPositionX() != null && plant.getPositionY() != null) {
+                occupancyIndex.place(plant.getId(), plant.getPlotId(), plant.getPositionX(), plant.getPositionY());
+            } else {
+                occupancyIndex.remove(plant.getId());
+            }
+            results[indexes.get(j)] = BatchItemResult.succeeded(indexes.get(j), plant);
+            eventPublisher.publishEvent(EntityChangeEvent.plantMoved(plant));
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Reserves the target cell for plot positions. Positions without a plot keep the
+     * area-wide check used by createPlant, against the positions taken before the batch
+     * and those claimed earlier in it. Returns null when no cell needs reserving.
+     */
+    private PlotOccupancyIndex.Reservation reservePosition(Long areaId, Long plotId, Integer positionX,
+                                                          Integer positionY, Set<String> takenAreaPositions) {
+        if (positionX == null || positionY == null) {
+            return null;
+        }
+        if (plotId != null) {
+            return occupancyIndex.reserve(plotId, positionX, positionY, null);
+        }
+        if (!takenAreaPositions.add(areaPositionKey(areaId, positionX, positionY))) {
+            eventPublisher.publishEvent(new PositionConflictEvent(PositionConflictEvent.Scope.AREA, areaId, positionX, positionY));
+            throw new PositionConflictException(positionX, positionY, "area");
+        }
+        return null;
+    }
+
+    // Positions already held in every area the batch places a plant outside a plot, in one query
+    private Set<String> loadAreaPositions(List<PlantCreateRequest> requests) {
+        Set<Long> areaIds = requests.stream()
+                .filter(request -> request.getAreaId() != null && request.getPlotId() == null
+                        && request.getPositionX() != null && request.getPositionY() != null)
+                .map(PlantCreateRequest::getAreaId)
+                .collect(Collectors.toSet());
+        Set<String> taken = new HashSet<>();
+        if (areaIds.isEmpty()) {
+            return taken;
+        }
+        for (PlantPosition plant : plantRepository.findByAreaIdInAndPositionXIsNotNullAndPositionYIsNotNull(
+                areaIds, PlantPosition.class)) {
+            taken.add(areaPositionKey(plant.getAreaId(), plant.getPositionX(), plant.getPositionY()));
+        }
+        return taken;
+    }
+
+    private static String areaPositionKey(Long areaId, int x, int y) {
+        return areaId + ":" + x + ":" + y;
+    }
+
+    private void cancelAll(List<PlotOccupancyIndex.Reservation> reservations) {
+        for (PlotOccupancyIndex.Reservation reservation : reservations) {
+            if (reservation != null) {
+                reservation.cancel();
+            }
+        }
+    }
+
+    private void checkBatchSize(int size) {
+        if (size > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch may contain at most " + MAX_BATCH_SIZE + " plants");
+        }
+    }
+}
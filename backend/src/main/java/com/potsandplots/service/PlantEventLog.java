@@ -0,0 +1,184 @@
+package com.potsandplots.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.potsandplots.event.EntityChangeEvent;
+import com.potsandplots.event.EntityChangeEvent.EntityType;
+import com.potsandplots.model.Plant;
+import com.potsandplots.model.PlantEvent;
+import com.potsandplots.repository.PlantEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records every plant change in the plant_events table.
+ * <p>
+ * Writes only put the change on an in-memory queue; a background thread drains
+ * it every {@value #FLUSH_INTERVAL_MS} ms and inserts what it found as one JDBC
+ * batch, so the write path never waits on the history table. The same thread
+ * rolls up history older than potsandplots.history.rollup-after-days once a day.
+ * Readers call {@link #flush()} first so that they see changes queued so far.
+ */
+@Component
+public class PlantEventLog {
+
+    private static final Logger log = LoggerFactory.getLogger(PlantEventLog.class);
+
+    static final long FLUSH_INTERVAL_MS = 250;
+    static final int MAX_BATCH = 1000;
+    private static final int QUEUE_CAPACITY = 100_000;
+
+    @Autowired
+    private PlantEventRepository plantEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${potsandplots.history.rollup-after-days:90}")
+    private int rollupAfterDays;
+
+    private final BlockingQueue<PlantEvent> pending = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "plant-event-log");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() {
+        writer.scheduleWithFixedDelay(this::flushQuietly, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        writer.scheduleWithFixedDelay(this::rollUpQuietly, 1, 24, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+        flushQuietly();
+    }
+
+    @EventListener
+    public void onEntityChange(EntityChangeEvent event) {
+        if (event.getEntityType() != EntityType.PLANT) {
+            return;
+        }
+        PlantEvent entry = new PlantEvent(event.getEntityId(), areaOf(event.getData()),
+                event.getChangeType().name(), Instant.now(), payloadOf(event.getData()));
+        entry.setGardenId(event.getGardenId());
+        if (!pending.offer(entry)) {
+            // The database has fallen far behind; losing history beats stalling writes.
+            // Counted rather than logged here, as a bulk import can overflow by thousands
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Writes out everything queued so far.
+     */
+    public synchronized void flush() {
+        long lost = dropped.getAndSet(0);
+        if (lost > 0) {
+            log.warn("Plant history queue was full, dropped {} events", lost);
+        }
+        List<PlantEvent> batch = new ArrayList<>(MAX_BATCH);
+        while (pending.drainTo(batch, MAX_BATCH) > 0) {
+            fillMissingAreas(batch);
+            plantEventRepository.saveAll(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Rolls up history older than the configured age and returns how many rows it removed.
+     */
+    public int rollUp() {
+        int removed = plantEventRepository.rollUpBefore(Instant.now().minus(Duration.ofDays(rollupAfterDays)));
+        log.info("Rolled up {} plant history events older than {} days", removed, rollupAfterDays);
+        return removed;
+    }
+
+    // Deletes and detaches don't carry the plant's area, so take it from its last recorded event
+    private void fillMissingAreas(List<PlantEvent> batch) {
+        Map<Long, Long> areaByPlant = new HashMap<>();
+        for (PlantEvent entry : batch) {
+            if (entry.getAreaId() != null) {
+                areaByPlant.put(entry.getPlantId(), entry.getAreaId());
+            } else {
+                Long areaId = areaByPlant.computeIfAbsent(entry.getPlantId(),
+                        plantId -> plantEventRepository.findLastAreaId(plantId).orElse(null));
+                entry.setAreaId(areaId);
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Could not write plant history", e);
+        }
+    }
+
+    private void rollUpQuietly() {
+        try {
+            rollUp();
+        } catch (RuntimeException e) {
+            log.error("Could not roll up plant history", e);
+        }
+    }
+
+    private static Long areaOf(Object data) {
+        if (data instanceof Plant plant) {
+            return plant.getAreaId();
+        }
+        if (data instanceof Map<?, ?> fields && fields.get("areaId") instanceof Long areaId) {
+            return areaId;
+        }
+        return null;
+    }
+
+    private String payloadOf(Object data) {
+        Object fields = data;
+        if (data instanceof Plant plant) {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("name", plant.getName());
+            snapshot.put("speciesId", plant.getSpeciesId());
+            snapshot.put("areaId", plant.getAreaId());
+            snapshot.put("plotId", plant.getPlotId());
+            snapshot.put("positionX", plant.getPositionX());
+            snapshot.put("positionY", plant.getPositionY());
+            snapshot.put("healthStatus", plant.getHealthStatus());
+            snapshot.put("wateringSchedule", plant.getWateringSchedule());
+            snapshot.put("notes", plant.getNotes());
+            fields = snapshot;
+        }
+        if (fields == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(fields);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+}
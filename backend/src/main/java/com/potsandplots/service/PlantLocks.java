@@ -0,0 +1,61 @@
+package com.potsandplots.service;
+
+import org.springframework.stereotype.Component;
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped locks keyed by plant id. Writes to the same plant run one at a time so
+ * that their database saves and occupancy updates are applied in the same order;
+ * writes to different plants only contend when they hash to the same stripe.
+ */
+@Component
+public class PlantLocks {
+
+    private static final int STRIPES = 64;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    public PlantLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withLock(Long plantId, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripe(plantId)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs the action holding the locks of several plants. Stripes are always taken
+     * in ascending order so that overlapping batches cannot deadlock.
+     */
+    public <T> T withLocks(Collection<Long> plantIds, Supplier<T> action) {
+        TreeSet<Integer> held = new TreeSet<>();
+        for (Long plantId : plantIds) {
+            held.add(stripe(plantId));
+        }
+        for (Integer stripe : held) {
+            stripes[stripe].lock();
+        }
+        try {
+            return action.get();
+        } finally {
+            for (Integer stripe : held.descendingSet()) {
+                stripes[stripe].unlock();
+            }
+        }
+    }
+
+    private int stripe(Long plantId) {
+        return Math.floorMod(plantId.hashCode(), STRIPES);
+    }
+}
@@ -0,0 +1,296 @@
+package com.potsandplots.service;
+
+import com.potsandplots.config.GardenContext;
+import com.potsandplots.dto.GridPosition;
+import com.potsandplots.dto.PlantPosition;
+import com.potsandplots.dto.PlotOccupancy;
+import com.potsandplots.model.Plot;
+import com.potsandplots.repository.PlantRepository;
+import com.potsandplots.repository.PlotRepository;
+import com.potsandplots.event.PositionConflictEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory occupancy grid per plot, sized from the plot's width × length. A grid
+ * is loaded from the database the first time its plot is queried and is then kept
+ * up to date by the write paths, so conflict checks no longer need a query.
+ * <p>
+ * Writers {@link #reserve reserve} a cell before saving and commit or cancel the
+ * reservation afterwards. A reserved cell is unavailable to everyone else, so two
+ * concurrent requests can never both be granted the same cell. The unique
+ * constraint on (plot_id, position_x, position_y) remains the backstop for writes
+ * from other instances.
+ * <p>
+ * Plot ids are unique across gardens, so grids are keyed by plot alone; each
+ * grid remembers its garden and is only served to callers in that garden.
+ */
+@Component
+public class PlotOccupancyIndex {
+
+    private static final long FREE = 0L;
+
+    @Autowired
+    private PlotRepository plotRepository;
+
+    @Autowired
+    private PlantRepository plantRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final ConcurrentMap<Long, PlotGrid> grids = new ConcurrentHashMap<>();
+
+    // Which loaded grid each plant currently sits in
+    private final ConcurrentMap<Long, Long> plotByPlant = new ConcurrentHashMap<>();
+
+    // Reserved cells hold a negative token, which can never clash with a plant id
+    private final AtomicLong reservationTokens = new AtomicLong();
+
+    /**
+     * Returns the id of the plant occupying the cell, a negative value if the cell
+     * is reserved by a write in progress, or null if it is free.
+     *
+     * @throws IllegalArgumentException if the plot does not exist or the cell lies outside it
+     */
+    public Long occupantAt(Long plotId, int x, int y) {
+        PlotGrid grid = gridContaining(plotId, x, y);
+        long occupant = grid.get(x, y);
+        return occupant == FREE ? null : occupant;
+    }
+
+    /**
+     * Claims a cell for a plant that is about to be saved there.
+     *
+     * @param plantId the plant being placed, or null if it has not been saved yet
+     * @throws PositionConflictException if another plant holds or has reserved the cell
+     * @throws IllegalArgumentException if the plot does not exist or the cell lies outside it
+     */
+    public Reservation reserve(Long plotId, int x, int y, Long plantId) {
+        PlotGrid grid = gridContaining(plotId, x, y);
+        long token = -reservationTokens.incrementAndGet();
+        if (!grid.claim(x, y, token, plantId)) {
+            eventPublisher.publishEvent(new PositionConflictEvent(PositionConflictEvent.Scope.PLOT, plotId, x, y));
+            throw new PositionConflictException(x, y);
+        }
+        return new Reservation(plotId, grid, x, y, token);
+    }
+
+    /**
+     * Lists the free cells of a plot in row-major order, or empty if the plot does not exist.
+     */
+    public Optional<List<GridPosition>> freeCells(Long plotId) {
+        return freeCells(plotId, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Lists at most {@code max} free cells of a plot, stopping the scan once they are found.
+     */
+    public Optional<List<GridPosition>> freeCells(Long plotId, int max) {
+        return Optional.ofNullable(grid(plotId)).map(grid -> grid.freeCells(max));
+    }
+
+    /**
+     * Returns a copy of a plot's grid, or empty if the plot does not exist. Cells
+     * reserved by a write still in progress show as free.
+     */
+    public Optional<PlotOccupancy> occupancy(Long plotId) {
+        return Optional.ofNullable(grid(plotId)).map(grid -> grid.snapshot(plotId));
+    }
+
+    /**
+     * Records that a plant now sits at the given cell, releasing whatever cell it held before.
+     */
+    public void place(Long plantId, Long plotId, int x, int y) {
+        remove(plantId);
+        PlotGrid grid = grids.get(plotId);
+        if (grid != null && grid.set(x, y, plantId)) {
+            plotByPlant.put(plantId, plotId);
+        }
+    }
+
+    /**
+     * Releases the cell held by a plant that was deleted or left its plot.
+     */
+    public void remove(Long plantId) {
+        Long plotId = plotByPlant.remove(plantId);
+        if (plotId != null) {
+            PlotGrid grid = grids.get(plotId);
+            if (grid != null) {
+                grid.clear(plantId);
+            }
+        }
+    }
+
+    /**
+     * Drops a plot's grid after it was resized or deleted; it is reloaded on next use.
+     */
+    public void evictPlot(Long plotId) {
+        PlotGrid grid = grids.remove(plotId);
+        if (grid != null) {
+            for (Long plantId : grid.plantIds()) {
+                plotByPlant.remove(plantId, plotId);
+            }
+        }
+    }
+
+    // The plot's grid, or null if the plot does not exist in the current garden
+    private PlotGrid grid(Long plotId) {
+        PlotGrid grid = grids.computeIfAbsent(plotId, this::load);
+        return grid != null && grid.gardenId.equals(GardenContext.current()) ? grid : null;
+    }
+
+    private PlotGrid gridContaining(Long plotId, int x, int y) {
+        PlotGrid grid = grid(plotId);
+        if (grid == null) {
+            throw new IllegalArgumentException("Plot " + plotId + " not found");
+        }
+        if (!grid.contains(x, y)) {
+            throw new IllegalArgumentException("Position (" + x + ", " + y + ") is outside the plot (" +
+                                               grid.width + "×" + grid.length + ")");
+        }
+        return grid;
+    }
+
+    private PlotGrid load(Long plotId) {
+        Plot plot = plotRepository.findById(plotId).orElse(null);
+        if (plot == null) {
+            return null;
+        }
+        PlotGrid grid = new PlotGrid(GardenContext.current(), plot.getWidth(), plot.getLength());
+        for (PlantPosition plant : plantRepository.findByPlotId(plotId, PlantPosition.class)) {
+            if (plant.getPositionX() != null && plant.getPositionY() != null
+                    && grid.set(plant.getPositionX(), plant.getPositionY(), plant.getId())) {
+                plotByPlant.put(plant.getId(), plotId);
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * A claimed cell. Call {@link #commit} once the plant has been saved there, or
+     * {@link #cancel} if the save failed.
+     */
+    public final class Reservation {
+        private final Long plotId;
+        private final PlotGrid grid;
+        private final int x;
+        private final int y;
+        private final long token;
+
+        private Reservation(Long plotId, PlotGrid grid, int x, int y, long token) {
+            this.plotId = plotId;
+            this.grid = grid;
+            this.x = x;
+            this.y = y;
+            this.token = token;
+        }
+
+        /**
+         * Hands the cell to the saved plant and releases the cell it held before.
+         */
+        public void commit(Long plantId) {
+            if (grid.get(x, y) == plantId) {
+                return;
+            }
+            remove(plantId);
+            if (grid.set(x, y, plantId)) {
+                plotByPlant.put(plantId, plotId);
+            }
+        }
+
+        public void cancel() {
+            grid.release(x, y, token);
+        }
+    }
+
+    private static final class PlotGrid {
+        private final String gardenId;
+        private final int width;
+        private final int length;
+        private final long[] cells;
+        private final Map<Long, Integer> cellByPlant = new HashMap<>();
+
+        PlotGrid(String gardenId, int width, int length) {
+            this.gardenId = gardenId;
+            this.width = width;
+            this.length = length;
+            this.cells = new long[width * length];
+        }
+
+        boolean contains(int x, int y) {
+            return x >= 0 && y >= 0 && x < width && y < length;
+        }
+
+        synchronized long get(int x, int y) {
+            return cells[y * width + x];
+        }
+
+        // Plants left outside the grid by a resize cannot collide with anything, so they are not tracked
+        synchronized boolean set(int x, int y, long plantId) {
+            if (!contains(x, y)) {
+                return false;
+            }
+            int cell = y * width + x;
+            cells[cell] = plantId;
+            cellByPlant.put(plantId, cell);
+            return true;
+        }
+
+        // Takes a free cell for the token; succeeds without change if the plant already sits there
+        synchronized boolean claim(int x, int y, long token, Long plantId) {
+            int cell = y * width + x;
+            if (cells[cell] == FREE) {
+                cells[cell] = token;
+                return true;
+            }
+            return plantId != null && cells[cell] == plantId;
+        }
+
+        synchronized void release(int x, int y, long token) {
+            int cell = y * width + x;
+            if (cells[cell] == token) {
+                cells[cell] = FREE;
+            }
+        }
+
+        synchronized void clear(long plantId) {
+            Integer cell = cellByPlant.remove(plantId);
+            if (cell != null && cells[cell] == plantId) {
+                cells[cell] = FREE;
+            }
+        }
+
+        synchronized List<GridPosition> freeCells(int max) {
+            List<GridPosition> free = new ArrayList<>(Math.min(max, cells.length - cellByPlant.size()));
+            for (int cell = 0; cell < cells.length && free.size() < max; cell++) {
+                if (cells[cell] == FREE) {
+                    free.add(new GridPosition(cell % width, cell / width));
+                }
+            }
+            return free;
+        }
+
+        // Plants are tracked only while inside the grid, so they are exactly the occupied cells
+        synchronized PlotOccupancy snapshot(Long plotId) {
+            long[] copy = new long[cells.length];
+            for (int cell = 0; cell < cells.length; cell++) {
+                copy[cell] = Math.max(cells[cell], FREE);
+            }
+            return new PlotOccupancy(plotId, width, length, copy, cellByPlant.size());
+        }
+
+        synchronized List<Long> plantIds() {
+            return new ArrayList<>(cellByPlant.keySet());
+        }
+    }
+}
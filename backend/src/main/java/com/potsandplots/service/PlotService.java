@@ -0,0 +1,36 @@
+package com.potsandplots.service;
+
+import com.potsandplots.repository.PlantRepository;
+import com.potsandplots.repository.PlotRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class PlotService {
+
+    @Autowired
+    private PlotRepository plotRepository;
+
+    @Autowired
+    private PlantRepository plantRepository;
+
+    /**
+     * Makes every plant of the plot free-standing and deletes the plot, all in one
+     * transaction and with a fixed number of statements however many plants it holds.
+     *
+     * @return the ids of the plants that were detached, or empty if the plot does not exist
+     */
+    @Transactional
+    public Optional<List<Long>> deletePlot(Long id) {
+        if (!plotRepository.existsById(id)) {
+            return Optional.empty();
+        }
+        List<Long> plantIds = plantRepository.findIdsByPlotId(id);
+        plantRepository.detachFromPlot(id);
+        plotRepository.deleteById(id);
+        return Optional.of(plantIds);
+    }
+}
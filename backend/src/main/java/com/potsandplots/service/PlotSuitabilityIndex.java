@@ -0,0 +1,194 @@
+package com.potsandplots.service;
+
+import com.potsandplots.config.CacheConfig;
+import com.potsandplots.config.GardenContext;
+import com.potsandplots.event.EntityChangeEvent;
+import com.potsandplots.event.EntityChangeEvent.EntityType;
+import com.potsandplots.model.Area;
+import com.potsandplots.model.PlantType;
+import com.potsandplots.model.Plot;
+import com.potsandplots.repository.AreaRepository;
+import com.potsandplots.repository.PlotRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ranks every plot by how well it suits a plant type.
+ * <p>
+ * Each plot's site is parsed once into a CareFeatures vector and kept column by
+ * column in flat arrays, so scoring a plant type against all plots is a handful
+ * of tight loops over primitives rather than string matching per plot. The
+ * score is the weighted mean of 1 - |wanted - offered| over the dimensions both
+ * sides know about.
+ * <p>
+ * Each garden ranks only its own plots, and rankings are cached per garden and
+ * plant type. Any change to a plot or an area (e.g. through
+ * PlotController.updatePlot) drops that garden's vectors and evicts its cached
+ * rankings; a change to a plant type drops that type's vector.
+ */
+@Component
+public class PlotSuitabilityIndex {
+
+    @Autowired
+    private PlotRepository plotRepository;
+
+    @Autowired
+    private AreaRepository areaRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    // Bumped for a garden by every change to one of its plots or areas
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private final Map<String, PlotFeatures> plotFeatures = new ConcurrentHashMap<>();
+
+    // The ranking cache keys handed out per garden since its last plot or area change
+    private final Map<String, Set<String>> rankingKeys = new ConcurrentHashMap<>();
+
+    private final Map<Long, double[]> plantTypeFeatures = new ConcurrentHashMap<>();
+
+    /**
+     * All plots, best suited first.
+     */
+    public List<RankedPlot> rank(PlantType plantType) {
+        String gardenId = GardenContext.current();
+        PlotFeatures features = plotFeatures(gardenId);
+        // The generation in the key keeps a ranking computed from replaced vectors from being served
+        String key = gardenId + "/" + plantType.getId() + ":" + plantType.getVersion() + "@" + features.generation;
+        rankingKeys.computeIfAbsent(gardenId, id -> ConcurrentHashMap.newKeySet()).add(key);
+        return rankings().get(key, () -> features.rank(
+                plantTypeFeatures.computeIfAbsent(plantType.getId(), id -> CareFeatures.ofPlantType(plantType))));
+    }
+
+    @EventListener
+    public void onEntityChange(EntityChangeEvent event) {
+        if (event.getEntityType() == EntityType.PLOT || event.getEntityType() == EntityType.AREA) {
+            // Other gardens' rankings stay cached
+            generation(event.getGardenId()).incrementAndGet();
+            plotFeatures.remove(event.getGardenId());
+            Set<String> keys = rankingKeys.remove(event.getGardenId());
+            if (keys != null) {
+                Cache rankings = rankings();
+                keys.forEach(rankings::evict);
+            }
+        } else if (event.getEntityType() == EntityType.PLANT_TYPE) {
+            plantTypeFeatures.remove(event.getEntityId());
+        }
+    }
+
+    private Cache rankings() {
+        return cacheManager.getCache(CacheConfig.PLOT_RANKINGS);
+    }
+
+    private AtomicLong generation(String gardenId) {
+        return generations.computeIfAbsent(gardenId, id -> new AtomicLong());
+    }
+
+    private PlotFeatures plotFeatures(String gardenId) {
+        PlotFeatures features = plotFeatures.get(gardenId);
+        if (features == null) {
+            AtomicLong generation = generation(gardenId);
+            long current = generation.get();
+            features = new PlotFeatures(current, plotRepository.findAll(), areaRepository.findAll());
+            // Only publish the vectors if no plot or area changed while they were being read
+            if (generation.get() == current) {
+                plotFeatures.put(gardenId, features);
+            }
+        }
+        return features;
+    }
+
+    public static final class RankedPlot {
+        private final Long plotId;
+        private final String plotName;
+        private final Long areaId;
+        private final double score;
+
+        RankedPlot(Long plotId, String plotName, Long areaId, double score) {
+            this.plotId = plotId;
+            this.plotName = plotName;
+            this.areaId = areaId;
+            this.score = score;
+        }
+
+        public Long getPlotId() { return plotId; }
+
+        public String getPlotName() { return plotName; }
+
+        public Long getAreaId() { return areaId; }
+
+        public double getScore() { return score; }
+    }
+
+    /**
+     * Plot feature vectors stored column-wise: values[d][i] is dimension d of
+     * plot i, and known[d][i] is 1 if that value is known and 0 if not.
+     */
+    static final class PlotFeatures {
+        final long generation;
+        final Plot[] plots;
+        final double[][] values = new double[CareFeatures.DIMENSIONS][];
+        final double[][] known = new double[CareFeatures.DIMENSIONS][];
+
+        PlotFeatures(long generation, List<Plot> plotList, List<Area> areaList) {
+            this.generation = generation;
+            this.plots = plotList.toArray(new Plot[0]);
+            Map<Long, Area> areas = areaList.stream().collect(Collectors.toMap(Area::getId, Function.identity()));
+            for (int d = 0; d < CareFeatures.DIMENSIONS; d++) {
+                values[d] = new double[plots.length];
+                known[d] = new double[plots.length];
+            }
+            for (int i = 0; i < plots.length; i++) {
+                double[] features = CareFeatures.ofPlot(plots[i], areas.get(plots[i].getAreaId()));
+                for (int d = 0; d < CareFeatures.DIMENSIONS; d++) {
+                    boolean isKnown = !Double.isNaN(features[d]);
+                    values[d][i] = isKnown ? features[d] : 0.0;
+                    known[d][i] = isKnown ? 1.0 : 0.0;
+                }
+            }
+        }
+
+        List<RankedPlot> rank(double[] wanted) {
+            int n = plots.length;
+            double[] matched = new double[n];
+            double[] weight = new double[n];
+            for (int d = 0; d < CareFeatures.DIMENSIONS; d++) {
+                if (Double.isNaN(wanted[d])) {
+                    continue;
+                }
+                double target = wanted[d];
+                double w = CareFeatures.WEIGHTS[d];
+                double[] value = values[d];
+                double[] isKnown = known[d];
+                // Branch-free so the JIT can vectorize it
+                for (int i = 0; i < n; i++) {
+                    double wi = w * isKnown[i];
+                    matched[i] += wi * (1.0 - Math.abs(value[i] - target));
+                    weight[i] += wi;
+                }
+            }
+
+            RankedPlot[] ranked = new RankedPlot[n];
+            for (int i = 0; i < n; i++) {
+                double score = weight[i] > 0 ? matched[i] / weight[i] : 0.0;
+                ranked[i] = new RankedPlot(plots[i].getId(), plots[i].getName(), plots[i].getAreaId(), score);
+            }
+            Arrays.sort(ranked, Comparator.comparingDouble(RankedPlot::getScore).reversed()
+                    .thenComparing(RankedPlot::getPlotId));
+            return List.of(ranked);
+        }
+    }
+}
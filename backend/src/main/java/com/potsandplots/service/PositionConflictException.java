@@ -0,0 +1,19 @@
+package com.potsandplots.service;
+
+/**
+ * Thrown when a plant is placed on a plot cell or area position that another plant
+ * holds or has claimed.
+ */
+public class PositionConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PositionConflictException(int x, int y) {
+        this(x, y, "plot");
+    }
+
+    // container names what the position belongs to, e.g. "plot" or "area"
+    public PositionConflictException(int x, int y, String container) {
+        super("Position (" + x + ", " + y + ") is already occupied by another plant in this " + container);
+    }
+}
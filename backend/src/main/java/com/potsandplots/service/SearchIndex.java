@@ -0,0 +1,417 @@
+package com.potsandplots.service;
+
+import com.potsandplots.config.GardenContext;
+import com.potsandplots.dto.SearchHit;
+import com.potsandplots.event.EntityChangeEvent;
+import com.potsandplots.event.EntityChangeEvent.ChangeType;
+import com.potsandplots.event.EntityChangeEvent.EntityType;
+import com.potsandplots.model.Plant;
+import com.potsandplots.model.PlantType;
+import com.potsandplots.repository.PlantRepository;
+import com.potsandplots.repository.PlantTypeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * An embedded Lucene index over plant names and notes and plant type common and
+ * latin names, answering /api/search.
+ * <p>
+ * The index is kept current by entity change events. Searches reopen the searcher
+ * only when something was written since the last one, so a write is visible to the
+ * next search. It lives in memory unless potsandplots.search.index-dir names a
+ * directory, which keeps large indexes out of the heap and across restarts.
+ * <p>
+ * Each commit records the document schema and a fingerprint of the plants and
+ * plant types tables. Once the application is ready the index is rebuilt from the
+ * database only if it is empty or either of those no longer matches, e.g. after a
+ * crash lost uncommitted writes. A rebuild replaces documents in place, so the old
+ * ones keep answering searches until it finishes.
+ * <p>
+ * All gardens share the index. Each document records its garden and every
+ * search is filtered to the current one.
+ */
+@Component
+public class SearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndex.class);
+
+    static final String TYPE_PLANT = "plant";
+    static final String TYPE_PLANT_TYPE = "plantType";
+
+    private static final String KEY = "key";
+    private static final String TYPE = "type";
+    private static final String GARDEN = "garden";
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String NAME = "name";
+    private static final String LATIN = "latin";
+    private static final String NOTES = "notes";
+    private static final String BUILD = "build";
+
+    // Bump whenever documents change shape, so that indexes written before are rebuilt
+    private static final String SCHEMA_VERSION = "1";
+    private static final String SCHEMA = "schema";
+    private static final String FINGERPRINT = "fingerprint";
+
+    private static final String[] SEARCHED = {NAME, LATIN, NOTES};
+    private static final float[] BOOSTS = {3f, 2f, 1f};
+
+    private static final int REBUILD_PAGE = 1000;
+
+    @Autowired
+    private PlantRepository plantRepository;
+
+    @Autowired
+    private PlantTypeRepository plantTypeRepository;
+
+    @Value("${potsandplots.search.index-dir:}")
+    private String indexDir;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    // While a rebuild runs, the documents events have already written, which it must not overwrite
+    private Set<String> writtenDuringRebuild;
+
+    // Stamped on every document written; a rebuild deletes those it did not stamp itself
+    private String build = "";
+
+    private volatile String shutdownFingerprint;
+
+    @PostConstruct
+    public void open() throws IOException {
+        shutdownFingerprint = null;
+        directory = indexDir == null || indexDir.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexDir));
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    /**
+     * Fingerprints the database for the final commit of an index kept on disk. Runs
+     * as the context starts closing, while the schema still exists; a create-drop
+     * schema is already gone by the time {@link #close} runs.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void fingerprintForShutdown() {
+        if (indexDir == null || indexDir.isBlank()) {
+            // An in-memory index is gone after the shutdown, so no later start can reuse it
+            return;
+        }
+        try {
+            shutdownFingerprint = plantRepository.findSearchFingerprint();
+        } catch (RuntimeException e) {
+            log.warn("Could not fingerprint the database; the search index will be rebuilt on the next start", e);
+        }
+    }
+
+    // Writes made since the last commit are committed without a fingerprint unless one was taken at shutdown
+    @PreDestroy
+    public void close() throws IOException {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                commit(shutdownFingerprint);
+            }
+        } finally {
+            searcherManager.close();
+            writer.close();
+            directory.close();
+        }
+    }
+
+    /**
+     * Rebuilds the index unless the last commit left it matching the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfStale() {
+        Map<String, String> committed = new HashMap<>();
+        for (Map.Entry<String, String> entry : writer.getLiveCommitData()) {
+            committed.put(entry.getKey(), entry.getValue());
+        }
+        String fingerprint = plantRepository.findSearchFingerprint();
+        if (writer.getDocStats().numDocs > 0 && SCHEMA_VERSION.equals(committed.get(SCHEMA))
+                && fingerprint != null && fingerprint.equals(committed.get(FINGERPRINT))) {
+            log.info("Search index is current with {} documents", writer.getDocStats().numDocs);
+            return;
+        }
+        rebuild();
+    }
+
+    /**
+     * Indexes every garden's plant types and plants, in pages, replacing whatever the index held.
+     */
+    public void rebuild() {
+        long started = System.nanoTime();
+        // Taken first, so that changes made while the rebuild runs make the commit look stale
+        String fingerprint = plantRepository.findSearchFingerprint();
+        try {
+            synchronized (this) {
+                build = UUID.randomUUID().toString();
+                writtenDuringRebuild = new HashSet<>();
+            }
+            for (String gardenId : plantRepository.findAllGardenIds()) {
+                // Runs on the startup thread, which is in no garden of its own
+                GardenContext.set(gardenId);
+                try {
+                    indexGarden(gardenId);
+                } finally {
+                    GardenContext.clear();
+                }
+            }
+            synchronized (this) {
+                // Whatever this build did not write is no longer in the database
+                writer.deleteDocuments(new BooleanQuery.Builder()
+                        .add(new MatchAllDocsQuery(), Occur.MUST)
+                        .add(new TermQuery(new Term(BUILD, build)), Occur.MUST_NOT)
+                        .build());
+            }
+            commit(fingerprint);
+            searcherManager.maybeRefresh();
+            log.info("Search index rebuilt with {} documents in {} ms", writer.getDocStats().numDocs,
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            synchronized (this) {
+                writtenDuringRebuild = null;
+            }
+        }
+    }
+
+    private void indexGarden(String gardenId) throws IOException {
+        for (PlantType plantType : plantTypeRepository.findAll()) {
+            indexUnlessWritten(plantTypeDocument(gardenId, plantType));
+        }
+        long afterId = 0L;
+        List<Plant> page;
+        do {
+            page = plantRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, REBUILD_PAGE), Plant.class);
+            for (Plant plant : page) {
+                indexUnlessWritten(plantDocument(gardenId, plant));
+                afterId = plant.getId();
+            }
+        } while (page.size() == REBUILD_PAGE);
+    }
+
+    @EventListener
+    public void onEntityChange(EntityChangeEvent event) {
+        try {
+            if (event.getEntityType() == EntityType.PLANT) {
+                if (event.getChangeType() == ChangeType.DELETED) {
+                    delete(key(TYPE_PLANT, event.getEntityId()));
+                } else if (event.getChangeType() != ChangeType.MOVED) {
+                    // Moves don't touch any indexed field
+                    Plant plant = event.getData() instanceof Plant p ? p : plantRepository.findById(event.getEntityId()).orElse(null);
+                    if (plant != null) {
+                        write(plantDocument(event.getGardenId(), plant));
+                    }
+                }
+            } else if (event.getEntityType() == EntityType.PLANT_TYPE) {
+                if (event.getChangeType() == ChangeType.DELETED) {
+                    delete(key(TYPE_PLANT_TYPE, event.getEntityId()));
+                } else {
+                    PlantType plantType = event.getData() instanceof PlantType t ? t
+                            : plantTypeRepository.findById(event.getEntityId()).orElse(null);
+                    if (plantType != null) {
+                        write(plantTypeDocument(event.getGardenId(), plantType));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not update the search index for {} {}", event.getEntityType(), event.getEntityId(), e);
+        }
+    }
+
+    /**
+     * Finds plants and plant types matching every word of the query. Each word
+     * matches a term exactly, as a prefix, or within one or two edits depending
+     * on its length; names count for more than latin names, and those for more
+     * than notes. Only the current garden's documents are searched.
+     *
+     * @param type {@value #TYPE_PLANT} or {@value #TYPE_PLANT_TYPE} to search one kind only, or null for both
+     */
+    public List<SearchHit> search(String text, String type, int limit) throws IOException {
+        List<String> words = analyze(text);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String word : words) {
+            query.add(wordQuery(word), Occur.MUST);
+        }
+        query.add(new TermQuery(new Term(GARDEN, GardenContext.current())), Occur.FILTER);
+        if (type != null) {
+            query.add(new TermQuery(new Term(TYPE, type)), Occur.FILTER);
+        }
+
+        searcherManager.maybeRefresh();
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs top = searcher.search(query.build(), limit);
+            StoredFields stored = searcher.storedFields();
+            List<SearchHit> hits = new ArrayList<>(top.scoreDocs.length);
+            for (ScoreDoc scoreDoc : top.scoreDocs) {
+                Document document = stored.document(scoreDoc.doc);
+                hits.add(new SearchHit(document.get(TYPE), document.getField(ID).numericValue().longValue(),
+                        document.get(TITLE), scoreDoc.score));
+            }
+            return hits;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private Query wordQuery(String word) {
+        int maxEdits = word.length() >= 6 ? 2 : word.length() >= 3 ? 1 : 0;
+        BooleanQuery.Builder any = new BooleanQuery.Builder();
+        for (int f = 0; f < SEARCHED.length; f++) {
+            Term term = new Term(SEARCHED[f], word);
+            any.add(new BoostQuery(new TermQuery(term), BOOSTS[f] * 2), Occur.SHOULD);
+            // One-letter prefixes expand to too many terms to be useful
+            if (word.length() >= 2) {
+                any.add(new BoostQuery(new PrefixQuery(term), BOOSTS[f]), Occur.SHOULD);
+            }
+            if (maxEdits > 0) {
+                any.add(new BoostQuery(new FuzzyQuery(term, maxEdits, 1), BOOSTS[f] / 2), Occur.SHOULD);
+            }
+        }
+        return any.build();
+    }
+
+    private List<String> analyze(String text) throws IOException {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        try (TokenStream tokens = analyzer.tokenStream(NAME, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                words.add(term.toString());
+            }
+            tokens.end();
+        }
+        return words;
+    }
+
+    // Writes from events and from a rebuild are serialized so that a rebuild never
+    // overwrites a document with data older than an event already wrote
+    private synchronized void write(Document document) throws IOException {
+        if (writtenDuringRebuild != null) {
+            writtenDuringRebuild.add(document.get(KEY));
+        }
+        upsert(document);
+    }
+
+    private synchronized void delete(String key) throws IOException {
+        if (writtenDuringRebuild != null) {
+            writtenDuringRebuild.add(key);
+        }
+        writer.deleteDocuments(new Term(KEY, key));
+    }
+
+    private synchronized void indexUnlessWritten(Document document) throws IOException {
+        if (!writtenDuringRebuild.contains(document.get(KEY))) {
+            upsert(document);
+        }
+    }
+
+    private void upsert(Document document) throws IOException {
+        document.add(new StringField(BUILD, build, Field.Store.NO));
+        writer.updateDocument(new Term(KEY, document.get(KEY)), document);
+    }
+
+    private synchronized void commit(String fingerprint) throws IOException {
+        Map<String, String> data = new HashMap<>();
+        data.put(SCHEMA, SCHEMA_VERSION);
+        if (fingerprint != null) {
+            data.put(FINGERPRINT, fingerprint);
+        }
+        writer.setLiveCommitData(data.entrySet());
+        writer.commit();
+    }
+
+    private static String key(String type, Long id) {
+        return type + ":" + id;
+    }
+
+    private static Document plantDocument(String gardenId, Plant plant) {
+        Document document = document(gardenId, TYPE_PLANT, plant.getId(), plant.getName());
+        addText(document, NAME, plant.getName());
+        addText(document, NOTES, plant.getNotes());
+        return document;
+    }
+
+    private static Document plantTypeDocument(String gardenId, PlantType plantType) {
+        Document document = document(gardenId, TYPE_PLANT_TYPE, plantType.getId(), plantType.getCommonName());
+        addText(document, NAME, plantType.getCommonName());
+        addText(document, LATIN, plantType.getLatinName());
+        return document;
+    }
+
+    private static Document document(String gardenId, String type, Long id, String title) {
+        Document document = new Document();
+        document.add(new StringField(KEY, key(type, id), Field.Store.YES));
+        document.add(new StringField(GARDEN, gardenId, Field.Store.NO));
+        document.add(new StringField(TYPE, type, Field.Store.YES));
+        document.add(new StoredField(ID, id));
+        if (title != null) {
+            document.add(new StoredField(TITLE, title));
+        }
+        return document;
+    }
+
+    private static void addText(Document document, String field, String value) {
+        if (value != null && !value.isBlank()) {
+            document.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.potsandplots.service;
+
+import com.potsandplots.config.GardenContext;
+import com.potsandplots.dto.PlantSchedule;
+import com.potsandplots.dto.WateringTask;
+import com.potsandplots.event.EntityChangeEvent;
+import com.potsandplots.event.EntityChangeEvent.ChangeType;
+import com.potsandplots.event.EntityChangeEvent.EntityType;
+import com.potsandplots.model.Plant;
+import com.potsandplots.repository.PlantRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * The next watering of every scheduled plant, kept in a binary min-heap ordered
+ * by due time. The heap is built from the database the first time it is queried
+ * and afterwards follows plant change events, moving a single entry up or down
+ * when a plant is created, rescheduled, watered or deleted.
+ * <p>
+ * A plant is next due one recurrence after it was last watered, or after the day
+ * it was planted if it has never been watered. Plants without a recognised
+ * schedule have no entry.
+ * <p>
+ * Each garden has a heap of its own, built the first time that garden is
+ * queried, so a query only ever touches one garden's plants.
+ */
+@Component
+public class WateringQueue {
+
+    private static final Comparator<WateringTask> BY_DUE = Comparator.comparing(WateringTask::getDueAt)
+            .thenComparing(WateringTask::getPlantId);
+
+    @Autowired
+    private PlantRepository plantRepository;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    // Only gardens that have been queried have a heap
+    private final Map<String, Heap> gardens = new HashMap<>();
+
+    /**
+     * Tasks due before the given instant, soonest first. The heap is walked from
+     * the root and a subtree is only entered while its root is due, so this costs
+     * O(k log k) for k results however many plants are scheduled.
+     */
+    public synchronized List<WateringTask> dueBefore(Instant before, int limit) {
+        Heap queue = current();
+        WateringTask[] heap = queue.heap;
+        List<WateringTask> due = new ArrayList<>();
+        PriorityQueue<Integer> frontier = new PriorityQueue<>((a, b) -> BY_DUE.compare(heap[a], heap[b]));
+        if (queue.size > 0) {
+            frontier.add(0);
+        }
+        while (!frontier.isEmpty() && due.size() < limit) {
+            int slot = frontier.poll();
+            if (!heap[slot].getDueAt().isBefore(before)) {
+                break;
+            }
+            due.add(heap[slot]);
+            for (int child = 2 * slot + 1; child <= 2 * slot + 2 && child < queue.size; child++) {
+                frontier.add(child);
+            }
+        }
+        return due;
+    }
+
+    public synchronized WateringTask taskFor(Long plantId) {
+        Heap queue = current();
+        Integer slot = queue.slots.get(plantId);
+        return slot != null ? queue.heap[slot] : null;
+    }
+
+    public synchronized int size() {
+        return current().size;
+    }
+
+    @EventListener
+    public synchronized void onEntityChange(EntityChangeEvent event) {
+        // Until a garden's heap is first loaded the database is the only copy, so there is nothing to update
+        Heap queue = gardens.get(event.getGardenId());
+        if (queue == null || event.getEntityType() != EntityType.PLANT) {
+            return;
+        }
+        if (event.getChangeType() == ChangeType.DELETED) {
+            queue.remove(event.getEntityId());
+        } else if (event.getChangeType() == ChangeType.CREATED || event.getChangeType() == ChangeType.UPDATED) {
+            if (event.getData() instanceof Plant plant) {
+                queue.schedule(plant.getId(), taskFor(plant.getId(), plant.getName(), plant.getWateringSchedule(),
+                        plant.getLastWatered(), plant.getPlantedDate()));
+            } else {
+                plantRepository.findById(event.getEntityId()).ifPresentOrElse(
+                        plant -> queue.schedule(plant.getId(), taskFor(plant.getId(), plant.getName(),
+                                plant.getWateringSchedule(), plant.getLastWatered(), plant.getPlantedDate())),
+                        () -> queue.remove(event.getEntityId()));
+            }
+        }
+        // Moves don't change when a plant needs water
+    }
+
+    private Heap current() {
+        return gardens.computeIfAbsent(GardenContext.current(), gardenId -> load());
+    }
+
+    private Heap load() {
+        List<PlantSchedule> plants = plantRepository.findAllBy(PlantSchedule.class);
+        Heap queue = new Heap(Math.max(64, plants.size()));
+        for (PlantSchedule plant : plants) {
+            WateringTask task = taskFor(plant.getId(), plant.getName(), plant.getWateringSchedule(),
+                    plant.getLastWatered(), plant.getPlantedDate());
+            if (task != null) {
+                queue.heap[queue.size] = task;
+                queue.slots.put(task.getPlantId(), queue.size);
+                queue.size++;
+            }
+        }
+        for (int slot = queue.size / 2 - 1; slot >= 0; slot--) {
+            queue.siftDown(slot);
+        }
+        return queue;
+    }
+
+    private WateringTask taskFor(Long plantId, String name, String schedule, Instant lastWatered, LocalDate plantedDate) {
+        Instant from = lastWatered != null ? lastWatered
+                : plantedDate != null ? plantedDate.atStartOfDay(zone).toInstant() : null;
+        if (from == null) {
+            return null;
+        }
+        return WateringRecurrence.parse(schedule)
+                .map(recurrence -> new WateringTask(plantId, name, schedule, recurrence.nextAfter(from, zone)))
+                .orElse(null);
+    }
+
+    /**
+     * One garden's tasks.
+     */
+    private static final class Heap {
+        private WateringTask[] heap;
+        private int size;
+
+        // Where each plant's task sits in the heap, so it can be moved without a search
+        private final Map<Long, Integer> slots = new HashMap<>();
+
+        Heap(int capacity) {
+            heap = new WateringTask[capacity];
+        }
+
+        void schedule(Long plantId, WateringTask task) {
+            if (task == null) {
+                remove(plantId);
+                return;
+            }
+            Integer slot = slots.get(plantId);
+            if (slot == null) {
+                if (size == heap.length) {
+                    heap = Arrays.copyOf(heap, size * 2);
+                }
+                slot = size++;
+            }
+            place(task, slot);
+            siftUp(slot);
+            siftDown(slots.get(plantId));
+        }
+
+        void remove(Long plantId) {
+            Integer slot = slots.remove(plantId);
+            if (slot == null) {
+                return;
+            }
+            WateringTask last = heap[--size];
+            heap[size] = null;
+            if (slot < size) {
+                place(last, slot);
+                siftUp(slot);
+                siftDown(slots.get(last.getPlantId()));
+            }
+        }
+
+        private void siftUp(int slot) {
+            while (slot > 0) {
+                int parent = (slot - 1) / 2;
+                if (BY_DUE.compare(heap[slot], heap[parent]) >= 0) {
+                    return;
+                }
+                swap(slot, parent);
+                slot = parent;
+            }
+        }
+
+        private void siftDown(int slot) {
+            while (true) {
+                int smallest = slot;
+                for (int child = 2 * slot + 1; child <= 2 * slot + 2 && child < size; child++) {
+                    if (BY_DUE.compare(heap[child], heap[smallest]) < 0) {
+                        smallest = child;
+                    }
+                }
+                if (smallest == slot) {
+                    return;
+                }
+                swap(slot, smallest);
+                slot = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            WateringTask task = heap[a];
+            place(heap[b], a);
+            place(task, b);
+        }
+
+        private void place(WateringTask task, int slot) {
+            heap[slot] = task;
+            slots.put(task.getPlantId(), slot);
+        }
+    }
+}
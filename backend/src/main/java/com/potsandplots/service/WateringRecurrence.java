@@ -0,0 +1,66 @@
+package com.potsandplots.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.Period;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAmount;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A parsed Plant.wateringSchedule. Understands the values offered by the plant
+ * form ("daily", "every-other-day", "twice-weekly", "weekly", "bi-weekly",
+ * "monthly") and "every N days"; anything else, including "as-needed", has no
+ * recurrence.
+ */
+public final class WateringRecurrence {
+
+    private static final Map<String, TemporalAmount> NAMED = Map.of(
+            "daily", Period.ofDays(1),
+            "every-other-day", Period.ofDays(2),
+            "twice-weekly", Duration.ofHours(84),
+            "weekly", Period.ofWeeks(1),
+            "bi-weekly", Period.ofWeeks(2),
+            "biweekly", Period.ofWeeks(2),
+            "fortnightly", Period.ofWeeks(2),
+            "monthly", Period.ofMonths(1));
+
+    private static final Pattern EVERY_N_DAYS = Pattern.compile("every-(\\d{1,3})-days?");
+
+    private final TemporalAmount interval;
+
+    private WateringRecurrence(TemporalAmount interval) {
+        this.interval = interval;
+    }
+
+    public static Optional<WateringRecurrence> parse(String schedule) {
+        if (schedule == null) {
+            return Optional.empty();
+        }
+        String key = schedule.trim().toLowerCase(Locale.ROOT).replaceAll("[\\s_]+", "-");
+        TemporalAmount interval = NAMED.get(key);
+        if (interval == null) {
+            Matcher everyNDays = EVERY_N_DAYS.matcher(key);
+            if (everyNDays.matches() && Integer.parseInt(everyNDays.group(1)) > 0) {
+                interval = Period.ofDays(Integer.parseInt(everyNDays.group(1)));
+            }
+        }
+        return Optional.ofNullable(interval).map(WateringRecurrence::new);
+    }
+
+    public TemporalAmount getInterval() {
+        return interval;
+    }
+
+    /**
+     * The next watering after one at the given instant. Calendar intervals are
+     * added in the given zone so that "monthly" and "daily" keep to the clock.
+     */
+    public Instant nextAfter(Instant watered, ZoneId zone) {
+        return watered.atZone(zone).plus(interval).toInstant();
+    }
+}
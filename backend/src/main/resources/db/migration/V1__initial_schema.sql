@@ -0,0 +1,54 @@
+-- Schema as mapped by the JPA entities before any lookup indexes were added
+
+create sequence plant_seq start with 1 increment by 50;
+
+create table areas (
+    id bigint generated by default as identity primary key,
+    name varchar(255) not null,
+    location_type varchar(255) not null,
+    is_covered boolean not null,
+    is_greenhouse boolean not null,
+    brightness varchar(255) not null,
+    version bigint
+);
+
+create table plant_types (
+    id bigint generated by default as identity primary key,
+    common_name varchar(255) not null,
+    latin_name varchar(255),
+    light_requirements varchar(255),
+    water_requirements varchar(255),
+    soil_requirements varchar(255),
+    image_url varchar(255),
+    is_edible boolean not null,
+    version bigint
+);
+
+create table plots (
+    id bigint generated by default as identity primary key,
+    name varchar(255) not null,
+    area_id bigint not null,
+    plot_type varchar(255) not null,
+    width integer not null,
+    length integer not null,
+    soil_type varchar(255),
+    drainage_level varchar(255),
+    ph float(53),
+    version bigint
+);
+
+create table plants (
+    id bigint not null primary key,
+    name varchar(255) not null,
+    species_id bigint not null,
+    area_id bigint not null,
+    plot_id bigint,
+    position_x integer,
+    position_y integer,
+    planted_date date,
+    health_status varchar(255),
+    notes text,
+    watering_schedule varchar(255),
+    version bigint,
+    constraint uk_plants_plot_position unique (plot_id, position_x, position_y)
+);
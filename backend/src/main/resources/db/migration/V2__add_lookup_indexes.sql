@@ -0,0 +1,6 @@
+-- Indexes behind the area/plot lookups and the position conflict check.
+-- plot_id lookups already use the index of uk_plants_plot_position.
+
+create index idx_plants_area_position on plants (area_id, position_x, position_y);
+create index idx_plants_area_plot on plants (area_id, plot_id);
+create index idx_plots_area on plots (area_id);
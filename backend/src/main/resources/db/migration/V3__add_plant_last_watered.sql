@@ -0,0 +1,3 @@
+-- When each plant was last watered; the watering schedule counts from here
+
+alter table plants add column last_watered timestamp(6) with time zone;
@@ -0,0 +1,15 @@
+-- Append-only plant history, see PlantEvent
+
+create sequence plant_event_seq start with 1 increment by 100;
+
+create table plant_events (
+    id bigint not null primary key,
+    plant_id bigint not null,
+    area_id bigint,
+    change_type varchar(16) not null,
+    occurred_at timestamp(6) with time zone not null,
+    payload text
+);
+
+create index idx_plant_events_plant_time on plant_events (plant_id, occurred_at);
+create index idx_plant_events_area_time on plant_events (area_id, occurred_at);
@@ -0,0 +1,13 @@
+-- Planting rules used by auto-layout: per-type spacing, and companion/antagonist pairs
+
+alter table plant_types add column spacing integer;
+
+create table plant_type_relations (
+    id bigint generated by default as identity primary key,
+    plant_type_id bigint not null,
+    other_type_id bigint not null,
+    relation varchar(16) not null,
+    constraint uk_plant_type_relations_pair unique (plant_type_id, other_type_id)
+);
+
+create index idx_plant_type_relations_other on plant_type_relations (other_type_id);
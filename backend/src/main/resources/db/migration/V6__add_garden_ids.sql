@@ -0,0 +1,15 @@
+-- Every garden's rows share the tables; garden_id says whose a row is. Rows that
+-- predate gardens belong to the default one
+
+alter table areas add column garden_id varchar(64) default 'default' not null;
+alter table plant_types add column garden_id varchar(64) default 'default' not null;
+alter table plots add column garden_id varchar(64) default 'default' not null;
+alter table plants add column garden_id varchar(64) default 'default' not null;
+alter table plant_type_relations add column garden_id varchar(64) default 'default' not null;
+alter table plant_events add column garden_id varchar(64) default 'default' not null;
+
+-- Whole-garden reads (lists, keyset pages, exports) walk these in id order
+create index idx_plants_garden on plants (garden_id, id);
+create index idx_plots_garden on plots (garden_id, id);
+create index idx_areas_garden on areas (garden_id);
+create index idx_plant_types_garden on plant_types (garden_id);
@@ -0,0 +1,4 @@
+-- Keyset pages of an area's plants (area_id = ? and id > ? order by id) read this in
+-- order, rather than walking every plant of the garden looking for the area's
+
+create index idx_plants_area_id on plants (garden_id, area_id, id);
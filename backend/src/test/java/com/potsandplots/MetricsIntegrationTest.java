@@ -0,0 +1,60 @@
+package com.potsandplots;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metricsdb")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+public class MetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testRequestsAreTimedAndCounted() throws Exception {
+        double conflictsBefore = meterRegistry.counter("plants.position.conflicts", "scope", "plot").count();
+
+        mockMvc.perform(get("/api/plants/plot/1"))
+                .andExpect(status().isOk());
+
+        // Cherry Tom already grows at (0, 0) of the sample Tomato Bed
+        mockMvc.perform(post("/api/plants")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Intruder\",\"speciesId\":1,\"areaId\":2,\"plotId\":1,\"positionX\":0,\"positionY\":0}"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(conflictsBefore + 1, meterRegistry.counter("plants.position.conflicts", "scope", "plot").count());
+
+        DistributionSummary statements = meterRegistry.get("hibernate.statements.per.request")
+                .tags("method", "GET", "uri", "/api/plants/plot/{plotId}")
+                .summary();
+        assertTrue(statements.count() >= 1);
+        assertTrue(statements.max() >= 1, "Listing a plot's plants should run at least one statement");
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds")))
+                .andExpect(content().string(containsString("hibernate_statements_per_request")))
+                .andExpect(content().string(containsString("hibernate_statements_total")))
+                .andExpect(content().string(containsString("plants_position_conflicts_total")));
+    }
+}
@@ -1,6 +1,7 @@
 package com.potsandplots;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.potsandplots.config.GardenFilter;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,10 +10,17 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -186,4 +194,386 @@ public class PlantManagementIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[?(@.name=='Plant To Convert')].plotId").value((Object) null));
     }
+
+    @Test
+    public void testBatchPlantingAndBulkMove() throws Exception {
+        // Fill a 50x50 bed in one request
+        Map<String, Object> plotData = new HashMap<>();
+        plotData.put("name", "Big Bed");
+        plotData.put("areaId", 2);
+        plotData.put("plotType", "ground");
+        plotData.put("width", 50);
+        plotData.put("length", 50);
+
+        String plotResponse = mockMvc.perform(post("/api/plots")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(plotData)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Long plotId = Long.valueOf(objectMapper.readValue(plotResponse, Map.class).get("id").toString());
+
+        List<Map<String, Object>> tray = new ArrayList<>();
+        for (int y = 0; y < 50; y++) {
+            for (int x = 0; x < 50; x++) {
+                Map<String, Object> plantData = new HashMap<>();
+                plantData.put("name", "Seedling " + x + "," + y);
+                plantData.put("speciesId", 1);
+                plantData.put("areaId", 2);
+                plantData.put("plotId", plotId);
+                plantData.put("positionX", x);
+                plantData.put("positionY", y);
+                tray.add(plantData);
+            }
+        }
+        // One more for an already claimed cell
+        Map<String, Object> duplicate = new HashMap<>(tray.get(0));
+        duplicate.put("name", "Duplicate");
+        tray.add(duplicate);
+
+        String batchResponse = mockMvc.perform(post("/api/plants/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(tray)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2501)))
+                .andExpect(jsonPath("$[0].success").value(true))
+                .andExpect(jsonPath("$[2499].success").value(true))
+                .andExpect(jsonPath("$[2500].success").value(false))
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/api/plants/plot/" + plotId).param("limit", "1000").param("fields", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1000)));
+
+        List<Map<String, Object>> results = objectMapper.readValue(batchResponse, List.class);
+        Long firstId = Long.valueOf(((Map<String, Object>) results.get(0).get("plant")).get("id").toString());
+        Long secondId = Long.valueOf(((Map<String, Object>) results.get(1).get("plant")).get("id").toString());
+
+        // Move the first plant out of the plot, then the second into the freed cell
+        List<Map<String, Object>> moves = new ArrayList<>();
+        Map<String, Object> freeStanding = new HashMap<>();
+        freeStanding.put("plantId", firstId);
+        freeStanding.put("plotId", null);
+        moves.add(freeStanding);
+        Map<String, Object> intoOccupied = new HashMap<>();
+        intoOccupied.put("plantId", secondId);
+        intoOccupied.put("plotId", plotId);
+        intoOccupied.put("positionX", 2);
+        intoOccupied.put("positionY", 0);
+        moves.add(intoOccupied);
+
+        mockMvc.perform(put("/api/plants/move/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(moves)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].success").value(true))
+                .andExpect(jsonPath("$[0].plant.plotId").value((Object) null))
+                .andExpect(jsonPath("$[1].success").value(false));
+
+        Map<String, Object> intoFreed = new HashMap<>(intoOccupied);
+        intoFreed.put("positionX", 0);
+        mockMvc.perform(put("/api/plants/move/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(intoFreed))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].success").value(true))
+                .andExpect(jsonPath("$[0].plant.positionX").value(0))
+                .andExpect(jsonPath("$[0].plant.positionY").value(0));
+    }
+
+    @Test
+    public void testBatchMoveToAnotherPlotFreesTheOldCell() throws Exception {
+        Long fromPlotId = createPlot("Old Bed");
+        Long toPlotId = createPlot("New Bed");
+
+        Map<String, Object> plantData = new HashMap<>();
+        plantData.put("name", "Wanderer");
+        plantData.put("speciesId", 1);
+        plantData.put("areaId", 2);
+        plantData.put("plotId", fromPlotId);
+        plantData.put("positionX", 1);
+        plantData.put("positionY", 1);
+        String plantResponse = mockMvc.perform(post("/api/plants")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(plantData)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Long plantId = Long.valueOf(objectMapper.readValue(plantResponse, Map.class).get("id").toString());
+
+        // No position given, so the plant lands unplaced in the new plot
+        Map<String, Object> move = new HashMap<>();
+        move.put("plantId", plantId);
+        move.put("plotId", toPlotId);
+        mockMvc.perform(put("/api/plants/move/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(move))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].success").value(true))
+                .andExpect(jsonPath("$[0].plant.plotId").value(toPlotId.intValue()))
+                .andExpect(jsonPath("$[0].plant.positionX").value((Object) null))
+                .andExpect(jsonPath("$[0].plant.positionY").value((Object) null));
+
+        plantData.put("name", "Newcomer");
+        mockMvc.perform(post("/api/plants")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(plantData)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testBatchRejectsAreaPositionsTakenInOrBeforeTheBatch() throws Exception {
+        List<Map<String, Object>> batch = new ArrayList<>();
+        for (String name : List.of("First", "Second")) {
+            Map<String, Object> plantData = new HashMap<>();
+            plantData.put("name", name);
+            plantData.put("speciesId", 1);
+            plantData.put("areaId", 1);
+            plantData.put("positionX", 40);
+            plantData.put("positionY", 40);
+            batch.add(plantData);
+        }
+
+        // The second item repeats the first one's position
+        mockMvc.perform(post("/api/plants/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].success").value(true))
+                .andExpect(jsonPath("$[1].success").value(false))
+                .andExpect(jsonPath("$[1].error").value("Position (40, 40) is already occupied by another plant in this area"));
+
+        // Now the position is already held in the database
+        mockMvc.perform(post("/api/plants/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch.subList(1, 2))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].success").value(false));
+    }
+
+    @Test
+    public void testPlantHistoryIsRecorded() throws Exception {
+        Map<String, Object> plantData = new HashMap<>();
+        plantData.put("name", "Tracked Fern");
+        plantData.put("speciesId", 1);
+        plantData.put("areaId", 3);
+
+        String plantResponse = mockMvc.perform(post("/api/plants")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(plantData)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Long plantId = Long.valueOf(objectMapper.readValue(plantResponse, Map.class).get("id").toString());
+
+        Map<String, Object> update = new HashMap<>();
+        update.put("healthStatus", "wilting");
+        mockMvc.perform(put("/api/plants/" + plantId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk());
+
+        Map<String, Object> moveData = new HashMap<>();
+        moveData.put("areaId", 1);
+        mockMvc.perform(put("/api/plants/" + plantId + "/move")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(moveData)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/plants/" + plantId))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/plants/" + plantId + "/history"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)))
+                .andExpect(jsonPath("$[0].changeType").value("CREATED"))
+                .andExpect(jsonPath("$[1].changeType").value("UPDATED"))
+                .andExpect(jsonPath("$[1].payload.healthStatus").value("wilting"))
+                .andExpect(jsonPath("$[2].changeType").value("MOVED"))
+                .andExpect(jsonPath("$[2].areaId").value(1))
+                .andExpect(jsonPath("$[3].changeType").value("DELETED"))
+                .andExpect(jsonPath("$[3].areaId").value(1));
+
+        mockMvc.perform(get("/api/areas/3/history"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.plantId == " + plantId + ")]", hasSize(2)));
+    }
+
+    @Test
+    public void testGardenExportAndImport() throws Exception {
+        MvcResult export = mockMvc.perform(get("/api/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String ndjson = mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", containsString("garden.ndjson")))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = ndjson.split("\n");
+        assertTrue(lines.length > 0);
+        for (String line : lines) {
+            Map<String, Object> record = objectMapper.readValue(line, Map.class);
+            assertNotNull(record.get("type"));
+            assertNotNull(record.get("data"));
+        }
+        assertTrue(ndjson.contains("\"type\":\"area\""));
+        assertTrue(ndjson.contains("\"type\":\"plant\""));
+
+        // Ids in the file are the exporter's; the second plant asks for a cell the first already took
+        String upload = String.join("\n",
+                "{\"type\":\"area\",\"data\":{\"id\":901,\"name\":\"Imported Yard\",\"locationType\":\"outdoor\",\"isCovered\":false,\"isGreenhouse\":false,\"brightness\":\"high\"}}",
+                "{\"type\":\"plantType\",\"data\":{\"id\":902,\"commonName\":\"Imported Sorrel\",\"isEdible\":true}}",
+                "{\"type\":\"plot\",\"data\":{\"id\":903,\"name\":\"Imported Bed\",\"areaId\":901,\"plotType\":\"raised-bed\",\"width\":2,\"length\":2}}",
+                "{\"type\":\"plant\",\"data\":{\"id\":904,\"name\":\"Sorrel\",\"speciesId\":902,\"areaId\":901,\"plotId\":903,\"positionX\":0,\"positionY\":0}}",
+                "{\"type\":\"plant\",\"data\":{\"id\":905,\"name\":\"Sorrel Two\",\"speciesId\":902,\"areaId\":901,\"plotId\":903,\"positionX\":0,\"positionY\":0}}",
+                "{\"type\":\"plant\",\"data\":{\"id\":906,\"name\":\"Stray\",\"speciesId\":902,\"areaId\":999}}",
+                "{\"type\":\"compost\",\"data\":{}}") + "\n";
+
+        mockMvc.perform(post("/api/import")
+                .contentType("application/x-ndjson")
+                .content(upload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.areas").value(1))
+                .andExpect(jsonPath("$.plantTypes").value(1))
+                .andExpect(jsonPath("$.plots").value(1))
+                .andExpect(jsonPath("$.plants").value(1))
+                .andExpect(jsonPath("$.skipped").value(3))
+                .andExpect(jsonPath("$.errors", hasSize(3)));
+
+        mockMvc.perform(get("/api/plants"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.name == 'Sorrel')]", hasSize(1)))
+                .andExpect(jsonPath("$[?(@.name == 'Sorrel Two')]", hasSize(0)));
+    }
+
+    @Test
+    public void testImportSkipsRecordsTheDatabaseRejects() throws Exception {
+        // Both too long for their varchar(255) columns; the plant only fails once its batch is saved
+        String tooLong = "x".repeat(300);
+        String upload = String.join("\n",
+                "{\"type\":\"area\",\"data\":{\"id\":911,\"name\":\"Chard Yard\",\"locationType\":\"outdoor\",\"isCovered\":false,\"isGreenhouse\":false,\"brightness\":\"high\"}}",
+                "{\"type\":\"area\",\"data\":{\"id\":912,\"name\":\"" + tooLong + "\",\"locationType\":\"outdoor\",\"isCovered\":false,\"isGreenhouse\":false,\"brightness\":\"high\"}}",
+                "{\"type\":\"plantType\",\"data\":{\"id\":913,\"commonName\":\"Imported Chard\",\"isEdible\":true}}",
+                "{\"type\":\"plant\",\"data\":{\"id\":914,\"name\":\"Ruby Chard\",\"speciesId\":913,\"areaId\":911}}",
+                "{\"type\":\"plant\",\"data\":{\"id\":915,\"name\":\"Odd Chard\",\"speciesId\":913,\"areaId\":911,\"healthStatus\":\"" + tooLong + "\"}}",
+                "{\"type\":\"plant\",\"data\":{\"id\":916,\"name\":\"Golden Chard\",\"speciesId\":913,\"areaId\":911}}") + "\n";
+
+        mockMvc.perform(post("/api/import")
+                .contentType("application/x-ndjson")
+                .content(upload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.areas").value(1))
+                .andExpect(jsonPath("$.plants").value(2))
+                .andExpect(jsonPath("$.skipped").value(2))
+                .andExpect(jsonPath("$.errors[0]").value(startsWith("line 2: ")))
+                .andExpect(jsonPath("$.errors[1]").value(startsWith("line 5: ")));
+
+        mockMvc.perform(get("/api/plants"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.name == 'Ruby Chard')]", hasSize(1)))
+                .andExpect(jsonPath("$[?(@.name == 'Golden Chard')]", hasSize(1)))
+                .andExpect(jsonPath("$[?(@.name == 'Odd Chard')]", hasSize(0)));
+    }
+
+    @Test
+    public void testAutoLayoutHonoursSpacing() throws Exception {
+        Map<String, Object> plotData = new HashMap<>();
+        plotData.put("name", "Layout Bed");
+        plotData.put("areaId", 2);
+        plotData.put("plotType", "raised-bed");
+        plotData.put("width", 3);
+        plotData.put("length", 3);
+        String plotResponse = mockMvc.perform(post("/api/plots")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(plotData)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Long plotId = Long.valueOf(objectMapper.readValue(plotResponse, Map.class).get("id").toString());
+
+        // Sample tomatoes keep one cell clear all round, so a 3x3 bed takes one in each corner
+        Map<String, Object> planting = new HashMap<>();
+        planting.put("speciesId", 1);
+        planting.put("count", 5);
+        String layout = objectMapper.writeValueAsString(Map.of("plantings", List.of(planting)));
+
+        mockMvc.perform(post("/api/plots/" + plotId + "/auto-layout")
+                .param("dryRun", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(layout))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committed").value(false))
+                .andExpect(jsonPath("$.placed").value(4));
+        mockMvc.perform(get("/api/plots/" + plotId + "/grid"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.occupiedCells").value(0));
+
+        mockMvc.perform(post("/api/plots/" + plotId + "/auto-layout")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(layout))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committed").value(true))
+                .andExpect(jsonPath("$.placed").value(4))
+                .andExpect(jsonPath("$.unplaced").value(1))
+                .andExpect(jsonPath("$.results[4].error").value("No room left in the plot"));
+        mockMvc.perform(get("/api/plots/" + plotId + "/grid"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.occupiedCells").value(4))
+                .andExpect(jsonPath("$.cells[4]").value(0));
+    }
+
+    @Test
+    public void testGardensAreIsolated() throws Exception {
+        String upload = String.join("\n",
+                "{\"type\":\"area\",\"data\":{\"id\":1,\"name\":\"Allotment\",\"locationType\":\"outdoor\",\"isCovered\":false,\"isGreenhouse\":false,\"brightness\":\"high\"}}",
+                "{\"type\":\"plantType\",\"data\":{\"id\":1,\"commonName\":\"Rhubarb\",\"isEdible\":true}}",
+                "{\"type\":\"plot\",\"data\":{\"id\":1,\"name\":\"Rhubarb Bed\",\"areaId\":1,\"plotType\":\"raised-bed\",\"width\":2,\"length\":2}}",
+                "{\"type\":\"plant\",\"data\":{\"id\":1,\"name\":\"Victoria\",\"speciesId\":1,\"areaId\":1,\"plotId\":1,\"positionX\":0,\"positionY\":0}}") + "\n";
+        mockMvc.perform(post("/api/import")
+                .header(GardenFilter.HEADER, "allotment")
+                .contentType("application/x-ndjson")
+                .content(upload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.plants").value(1))
+                .andExpect(jsonPath("$.skipped").value(0));
+
+        // The allotment sees only its own rows, and none of the sample data
+        mockMvc.perform(get("/api/plants").header(GardenFilter.HEADER, "allotment"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name").value("Victoria"));
+        mockMvc.perform(get("/api/plant-types").header(GardenFilter.HEADER, "allotment"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+        String plots = mockMvc.perform(get("/api/plots").header(GardenFilter.HEADER, "allotment"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andReturn().getResponse().getContentAsString();
+        long plotId = objectMapper.readTree(plots).get(0).get("id").asLong();
+
+        // And the default garden can't reach them, even by id
+        mockMvc.perform(get("/api/plants"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.name == 'Victoria')]", hasSize(0)));
+        mockMvc.perform(get("/api/plots/" + plotId))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/plots/" + plotId + "/grid"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/plots/" + plotId + "/grid").header(GardenFilter.HEADER, "allotment"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.occupiedCells").value(1));
+
+        mockMvc.perform(get("/api/plants").header(GardenFilter.HEADER, "no/such garden"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Long createPlot(String name) throws Exception {
+        Map<String, Object> plotData = new HashMap<>();
+        plotData.put("name", name);
+        plotData.put("areaId", 2);
+        plotData.put("plotType", "ground");
+        plotData.put("width", 4);
+        plotData.put("length", 4);
+        String plotResponse = mockMvc.perform(post("/api/plots")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(plotData)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return Long.valueOf(objectMapper.readValue(plotResponse, Map.class).get("id").toString());
+    }
 }
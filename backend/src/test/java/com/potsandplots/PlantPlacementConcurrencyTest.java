@@ -0,0 +1,104 @@
+package com.potsandplots;
+
+import com.potsandplots.model.Plant;
+import com.potsandplots.model.Plot;
+import com.potsandplots.repository.PlantRepository;
+import com.potsandplots.repository.PlotRepository;
+import com.potsandplots.service.PlotOccupancyIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fires hundreds of parallel moves at a small plot and checks that no cell ends up
+ * with two plants, in the database or in the occupancy index.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:concurrencydb")
+@ActiveProfiles("test")
+public class PlantPlacementConcurrencyTest {
+
+    private static final int WIDTH = 4;
+    private static final int LENGTH = 4;
+    private static final int PLANTS = 10;
+    private static final int MOVES = 400;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private PlotRepository plotRepository;
+
+    @Autowired
+    private PlantRepository plantRepository;
+
+    @Autowired
+    private PlotOccupancyIndex occupancyIndex;
+
+    @Test
+    public void testParallelMovesNeverDoubleOccupyACell() throws Exception {
+        Plot plot = plotRepository.save(new Plot("Contended Bed", 1L, "raised-bed", WIDTH, LENGTH));
+        List<Long> plantIds = new ArrayList<>();
+        for (int i = 0; i < PLANTS; i++) {
+            Plant plant = new Plant("Plant " + i, 1L, 1L);
+            plant.setPlotId(plot.getId());
+            plant.setPositionX(i % WIDTH);
+            plant.setPositionY(i / WIDTH);
+            plantIds.add(plantRepository.save(plant).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<HttpStatus>> results = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < MOVES; i++) {
+            Long plantId = plantIds.get(random.nextInt(PLANTS));
+            Map<String, Object> moveData = new HashMap<>();
+            moveData.put("areaId", 1);
+            moveData.put("plotId", plot.getId());
+            moveData.put("positionX", random.nextInt(WIDTH));
+            moveData.put("positionY", random.nextInt(LENGTH));
+            results.add(executor.submit(() -> {
+                start.await();
+                ResponseEntity<String> response = restTemplate.exchange("/api/plants/" + plantId + "/move",
+                        HttpMethod.PUT, new HttpEntity<>(moveData), String.class);
+                return HttpStatus.valueOf(response.getStatusCode().value());
+            }));
+        }
+        start.countDown();
+
+        int moved = 0;
+        for (Future<HttpStatus> result : results) {
+            HttpStatus status = result.get(60, TimeUnit.SECONDS);
+            assertTrue(status == HttpStatus.OK || status == HttpStatus.BAD_REQUEST || status == HttpStatus.CONFLICT,
+                    "Unexpected status " + status);
+            if (status == HttpStatus.OK) {
+                moved++;
+            }
+        }
+        executor.shutdown();
+        assertTrue(moved > 0, "No move succeeded");
+
+        List<Plant> plants = plantRepository.findByPlotId(plot.getId());
+        assertEquals(PLANTS, plants.size());
+        Set<String> occupied = new HashSet<>();
+        for (Plant plant : plants) {
+            String cell = plant.getPositionX() + "," + plant.getPositionY();
+            assertTrue(occupied.add(cell), "Cell " + cell + " is occupied twice");
+            assertEquals(plant.getId(), occupancyIndex.occupantAt(plot.getId(), plant.getPositionX(), plant.getPositionY()),
+                    "Occupancy index disagrees with the database at " + cell);
+        }
+    }
+}
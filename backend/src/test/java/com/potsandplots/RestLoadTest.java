@@ -0,0 +1,237 @@
+package com.potsandplots;
+
+import com.potsandplots.model.Area;
+import com.potsandplots.model.Plant;
+import com.potsandplots.model.Plot;
+import com.potsandplots.repository.AreaRepository;
+import com.potsandplots.repository.PlantRepository;
+import com.potsandplots.repository.PlotRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the same mix of area reads and plant moves at the backend twice, once on
+ * the default platform thread pool and once with the virtual-threads profile, and
+ * reports throughput and latency percentiles for each. Not part of the regular
+ * build: run it with ./gradlew loadTest (on Java 21 for the virtual thread run).
+ *
+ * Tunable with -Dloadtest.clients, -Dloadtest.seconds and -Dloadtest.warmupSeconds.
+ */
+@Tag("load")
+public class RestLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 1000);
+    private static final int SECONDS = Integer.getInteger("loadtest.seconds", 30);
+    private static final int WARMUP_SECONDS = Integer.getInteger("loadtest.warmupSeconds", 5);
+
+    // Every fifth request is a move, the rest read a small area
+    private static final int MOVE_EVERY = 5;
+    private static final int AREA_PLANTS = 20;
+
+    @Test
+    public void comparePlatformAndVirtualThreads() throws Exception {
+        List<Result> results = new ArrayList<>();
+        results.add(run("platform threads"));
+        if (Runtime.version().feature() >= 21) {
+            results.add(run("virtual threads", "virtual-threads"));
+        } else {
+            System.out.println("Running on Java " + Runtime.version().feature()
+                    + ", so only the platform thread profile was measured (virtual threads need Java 21)");
+        }
+
+        String report = report(results);
+        System.out.println(report);
+        Path output = Paths.get("build", "reports", "loadtest", "results.md");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, report);
+
+        for (Result result : results) {
+            assertTrue(result.latenciesMicros.length > 0, "No requests completed for " + result.name);
+        }
+    }
+
+    private Result run(String name, String... profiles) throws Exception {
+        SpringApplication application = new SpringApplication(PotsAndPlotsApplication.class);
+        application.setAdditionalProfiles(profiles);
+        // Same socket limits for both runs, so only the request threading differs
+        try (ConfigurableApplicationContext context = application.run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:load-" + profiles.length,
+                "--spring.jpa.show-sql=false",
+                "--server.tomcat.accept-count=1024",
+                "--server.tomcat.max-connections=10000")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return drive(name, "http://localhost:" + port, seed(context));
+        }
+    }
+
+    private Fixture seed(ConfigurableApplicationContext context) {
+        AreaRepository areaRepository = context.getBean(AreaRepository.class);
+        PlotRepository plotRepository = context.getBean(PlotRepository.class);
+        PlantRepository plantRepository = context.getBean(PlantRepository.class);
+
+        Fixture fixture = new Fixture();
+        fixture.readAreaId = areaRepository.save(new Area("Load Read Area", "outdoor", false, false, "high")).getId();
+        List<Plant> plants = new ArrayList<>();
+        for (int i = 0; i < AREA_PLANTS; i++) {
+            plants.add(new Plant("Read Plant " + i, 1L, fixture.readAreaId));
+        }
+
+        // Each client owns one plant and two cells of the move bed, so moves never conflict
+        Long moveAreaId = areaRepository.save(new Area("Load Move Area", "outdoor", false, false, "high")).getId();
+        fixture.movePlotId = plotRepository.save(new Plot("Load Move Bed", moveAreaId, "row", 2 * CLIENTS, 1)).getId();
+        List<Plant> movingPlants = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            Plant plant = new Plant("Moving Plant " + i, 1L, moveAreaId);
+            plant.setPlotId(fixture.movePlotId);
+            plant.setPositionX(2 * i);
+            plant.setPositionY(0);
+            movingPlants.add(plant);
+        }
+        plantRepository.saveAll(plants);
+        fixture.movingPlantIds = plantRepository.saveAll(movingPlants).stream().map(Plant::getId).toList();
+        return fixture;
+    }
+
+    private Result drive(String name, String baseUrl, Fixture fixture) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        HttpRequest read = HttpRequest.newBuilder(URI.create(baseUrl + "/api/plants/area/" + fixture.readAreaId))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ClientStats>> futures = new ArrayList<>();
+        long[] window = new long[2];
+        for (int c = 0; c < CLIENTS; c++) {
+            int clientIndex = c;
+            futures.add(clients.submit(() -> {
+                start.await();
+                ClientStats stats = new ClientStats();
+                Long plantId = fixture.movingPlantIds.get(clientIndex);
+                int requestCount = 0;
+                boolean atHome = true;
+                while (System.nanoTime() < window[1]) {
+                    HttpRequest request = read;
+                    if (++requestCount % MOVE_EVERY == 0) {
+                        atHome = !atHome;
+                        int x = 2 * clientIndex + (atHome ? 0 : 1);
+                        request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/plants/" + plantId + "/move"))
+                                .timeout(Duration.ofSeconds(60))
+                                .header("Content-Type", "application/json")
+                                .PUT(HttpRequest.BodyPublishers.ofString(
+                                        "{\"plotId\":" + fixture.movePlotId + ",\"positionX\":" + x + ",\"positionY\":0}"))
+                                .build();
+                    }
+                    long sent = System.nanoTime();
+                    int status;
+                    try {
+                        status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (IOException e) {
+                        status = -1;
+                    }
+                    // Requests started during warm-up are not counted
+                    if (sent >= window[0]) {
+                        stats.record((System.nanoTime() - sent) / 1000, status == 200);
+                    }
+                }
+                return stats;
+            }));
+        }
+        window[0] = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+        window[1] = window[0] + TimeUnit.SECONDS.toNanos(SECONDS);
+        start.countDown();
+
+        List<long[]> perClient = new ArrayList<>();
+        int errors = 0;
+        for (Future<ClientStats> future : futures) {
+            ClientStats stats = future.get();
+            perClient.add(Arrays.copyOf(stats.latencies, stats.count));
+            errors += stats.errors;
+        }
+        clients.shutdown();
+
+        long[] latencies = perClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(name, latencies, errors);
+    }
+
+    private String report(List<Result> results) {
+        StringBuilder report = new StringBuilder()
+                .append("REST load test: ").append(CLIENTS).append(" clients, ").append(SECONDS)
+                .append(" s measured after ").append(WARMUP_SECONDS).append(" s warm-up, Java ")
+                .append(Runtime.version().feature()).append("\n")
+                .append("Mix: GET /api/plants/area/{id}, plus PUT /api/plants/{id}/move every ")
+                .append(MOVE_EVERY).append(" requests\n\n")
+                .append("| Profile | Requests | Throughput (req/s) | p50 (ms) | p99 (ms) | Errors |\n")
+                .append("|---|---|---|---|---|---|\n");
+        for (Result result : results) {
+            report.append(String.format(Locale.ROOT, "| %s | %d | %.0f | %.1f | %.1f | %d |%n",
+                    result.name, result.latenciesMicros.length, (double) result.latenciesMicros.length / SECONDS,
+                    result.percentileMillis(50), result.percentileMillis(99), result.errors));
+        }
+        return report.toString();
+    }
+
+    private static class Fixture {
+        Long readAreaId;
+        Long movePlotId;
+        List<Long> movingPlantIds;
+    }
+
+    private static class ClientStats {
+        long[] latencies = new long[1024];
+        int count;
+        int errors;
+
+        void record(long micros, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = micros;
+            if (!ok) {
+                errors++;
+            }
+        }
+    }
+
+    private static class Result {
+        final String name;
+        final long[] latenciesMicros;
+        final int errors;
+
+        Result(String name, long[] latenciesMicros, int errors) {
+            this.name = name;
+            this.latenciesMicros = latenciesMicros;
+            this.errors = errors;
+        }
+
+        double percentileMillis(int percentile) {
+            if (latenciesMicros.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * latenciesMicros.length) - 1;
+            return latenciesMicros[Math.max(index, 0)] / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.potsandplots.config;
+
+import com.potsandplots.repository.AreaRepository;
+import com.potsandplots.repository.PlantRepository;
+import com.potsandplots.repository.PlantTypeRepository;
+import com.potsandplots.repository.PlotRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:initializerdb")
+@ActiveProfiles("test")
+public class DataInitializerTest {
+
+    @Autowired
+    private DataInitializer dataInitializer;
+
+    @Autowired
+    private AreaRepository areaRepository;
+
+    @Autowired
+    private PlotRepository plotRepository;
+
+    @Autowired
+    private PlantRepository plantRepository;
+
+    @Autowired
+    private PlantTypeRepository plantTypeRepository;
+
+    @Test
+    public void testRunningAgainDoesNotReseed() throws Exception {
+        long areas = areaRepository.count();
+        long plots = plotRepository.count();
+        long plants = plantRepository.count();
+        long plantTypes = plantTypeRepository.count();
+        assertTrue(areas > 0, "Sample data should have been seeded on startup");
+
+        // Same as a restart against a persistent database that already holds data
+        dataInitializer.run();
+
+        assertEquals(areas, areaRepository.count());
+        assertEquals(plots, plotRepository.count());
+        assertEquals(plants, plantRepository.count());
+        assertEquals(plantTypes, plantTypeRepository.count());
+    }
+}
@@ -0,0 +1,76 @@
+package com.potsandplots.config;
+
+import com.potsandplots.event.EntityChangeEvent;
+import com.potsandplots.event.EntityChangeEvent.ChangeType;
+import com.potsandplots.event.EntityChangeEvent.EntityType;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two H2 databases stand in for the primary and the replica. Each holds a row
+ * naming itself, so a query shows which one a transaction was routed to.
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table if not exists instance (name varchar(16))");
+        jdbc.update("delete from instance");
+        jdbc.update("insert into instance (name) values (?)", name);
+        return dataSource;
+    }
+
+    private static ReplicaRoutingDataSource routing(Duration readYourWrites) {
+        return new ReplicaRoutingDataSource(database("primary"), database("replica"), readYourWrites);
+    }
+
+    private static String instance(ReplicaRoutingDataSource routing, boolean readOnly) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("select name from instance", String.class));
+    }
+
+    private static EntityChangeEvent plantMoved() {
+        return new EntityChangeEvent(EntityType.PLANT, ChangeType.MOVED, 1L);
+    }
+
+    @Test
+    public void testReadOnlyTransactionsGoToReplica() {
+        ReplicaRoutingDataSource routing = routing(Duration.ofMinutes(1));
+
+        assertEquals("replica", instance(routing, true));
+        assertEquals("primary", instance(routing, false));
+        assertEquals("primary", new JdbcTemplate(new LazyConnectionDataSourceProxy(routing))
+                .queryForObject("select name from instance", String.class));
+    }
+
+    @Test
+    public void testGardenReadsItsOwnWritesFromPrimary() {
+        ReplicaRoutingDataSource routing = routing(Duration.ofMinutes(1));
+        routing.onEntityChange(plantMoved());
+
+        assertEquals("primary", instance(routing, true));
+        assertEquals("replica", GardenContext.callIn("other", () -> instance(routing, true)));
+    }
+
+    @Test
+    public void testReplicaIsUsedAgainOnceLagHasPassed() {
+        ReplicaRoutingDataSource routing = routing(Duration.ZERO);
+        routing.onEntityChange(plantMoved());
+
+        assertEquals("replica", instance(routing, true));
+    }
+}
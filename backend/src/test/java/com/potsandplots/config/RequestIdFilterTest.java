@@ -0,0 +1,54 @@
+package com.potsandplots.config;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestIdFilterTest {
+
+    private final RequestIdFilter filter = new RequestIdFilter();
+
+    private String filter(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        AtomicReference<String> seen = new AtomicReference<>();
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                seen.set(MDC.get(RequestIdFilter.MDC_KEY));
+            }
+        };
+        filter.doFilter(request, response, new MockFilterChain(servlet));
+        return seen.get();
+    }
+
+    @Test
+    public void testCallerRequestIdIsUsedAndEchoed() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/plants");
+        request.addHeader(RequestIdFilter.HEADER, "abc-123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertEquals("abc-123", filter(request, response));
+        assertEquals("abc-123", response.getHeader(RequestIdFilter.HEADER));
+        assertNull(MDC.get(RequestIdFilter.MDC_KEY));
+    }
+
+    @Test
+    public void testMissingOrUnsafeRequestIdIsReplaced() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        String generated = filter(new MockHttpServletRequest("GET", "/api/plants"), response);
+        assertNotNull(generated);
+        assertEquals(generated, response.getHeader(RequestIdFilter.HEADER));
+
+        MockHttpServletRequest forged = new MockHttpServletRequest("GET", "/api/plants");
+        forged.addHeader(RequestIdFilter.HEADER, "line\nbreak");
+        assertNotEquals("line\nbreak", filter(forged, new MockHttpServletResponse()));
+    }
+}
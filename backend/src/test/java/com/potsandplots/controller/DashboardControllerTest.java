@@ -0,0 +1,94 @@
+package com.potsandplots.controller;
+
+import com.potsandplots.dto.DashboardSnapshot;
+import com.potsandplots.event.EntityChangeEvent;
+import com.potsandplots.event.EntityChangeEvent.ChangeType;
+import com.potsandplots.event.EntityChangeEvent.EntityType;
+import com.potsandplots.model.Area;
+import com.potsandplots.model.Plant;
+import com.potsandplots.model.PlantType;
+import com.potsandplots.model.Plot;
+import com.potsandplots.service.ChangeTracker;
+import com.potsandplots.service.DashboardService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(DashboardController.class)
+@Import(ChangeTracker.class)
+@ActiveProfiles("test")
+public class DashboardControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
+    @MockBean
+    private DashboardService dashboardService;
+
+    private DashboardSnapshot sampleSnapshot() {
+        Area area = new Area("Front Garden", "outdoor", false, false, "high");
+        area.setId(1L);
+        Plot plot = new Plot("Tomato Bed", 1L, "raised_bed", 4, 2);
+        plot.setId(1L);
+        Plant plant = new Plant("Cherry Tom", 1L, 1L);
+        plant.setId(1L);
+        PlantType plantType = new PlantType("Tomato", "Solanum lycopersicum", true);
+        plantType.setId(1L);
+        return new DashboardSnapshot(Arrays.asList(area), Arrays.asList(plot),
+                Arrays.asList(plant), Arrays.asList(plantType));
+    }
+
+    @Test
+    public void testGetDashboardReturnsAllCollections() throws Exception {
+        when(dashboardService.getSnapshot()).thenReturn(sampleSnapshot());
+
+        mockMvc.perform(get("/api/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.areas[0].name").value("Front Garden"))
+                .andExpect(jsonPath("$.plots[0].name").value("Tomato Bed"))
+                .andExpect(jsonPath("$.plants[0].name").value("Cherry Tom"))
+                .andExpect(jsonPath("$.plantTypes[0].commonName").value("Tomato"));
+    }
+
+    @Test
+    public void testUnchangedDashboardReturnsNotModified() throws Exception {
+        when(dashboardService.getSnapshot()).thenReturn(sampleSnapshot());
+
+        String etag = mockMvc.perform(get("/api/dashboard"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/dashboard").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        verify(dashboardService, times(1)).getSnapshot();
+    }
+
+    @Test
+    public void testDashboardChangesAfterWrite() throws Exception {
+        when(dashboardService.getSnapshot()).thenReturn(sampleSnapshot());
+
+        String etag = mockMvc.perform(get("/api/dashboard"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        changeTracker.onEntityChange(new EntityChangeEvent(EntityType.PLANT, ChangeType.MOVED, 1L));
+
+        mockMvc.perform(get("/api/dashboard").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.plants[0].name").value("Cherry Tom"));
+    }
+}
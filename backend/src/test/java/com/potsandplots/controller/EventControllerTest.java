@@ -0,0 +1,101 @@
+package com.potsandplots.controller;
+
+import com.potsandplots.event.EntityChangeEvent;
+import com.potsandplots.event.EntityChangeEvent.ChangeType;
+import com.potsandplots.event.EntityChangeEvent.EntityType;
+import com.potsandplots.model.Plant;
+import com.potsandplots.service.ChangeFeed;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(EventController.class)
+@Import(ChangeFeed.class)
+@ActiveProfiles("test")
+public class EventControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    public void testReconnectReplaysMissedChanges() throws Exception {
+        long lastSeen = changeFeed.getSequence();
+        Plant plant = new Plant("Cherry Tom", 1L, 1L);
+        plant.setId(7L);
+        eventPublisher.publishEvent(new EntityChangeEvent(EntityType.PLANT, ChangeType.CREATED, 7L, plant));
+        eventPublisher.publishEvent(new EntityChangeEvent(EntityType.PLOT, ChangeType.DELETED, 3L));
+
+        MvcResult result = mockMvc.perform(get("/api/events").header("Last-Event-ID", changeFeed.getEpoch() + ":" + lastSeen))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String stream = awaitContent(result, "\"entityId\":3");
+        assertTrue(stream.contains("event:ready"));
+        assertTrue(stream.contains("id:" + changeFeed.getEpoch() + ":" + (lastSeen + 1)));
+        assertTrue(stream.contains("\"name\":\"Cherry Tom\""));
+        assertTrue(stream.indexOf("\"entityId\":7") < stream.indexOf("\"entityId\":3"));
+    }
+
+    @Test
+    public void testUnknownSequenceAsksClientToReload() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/events").param("since", String.valueOf(changeFeed.getSequence() + 100)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        awaitContent(result, "event:reset");
+    }
+
+    @Test
+    public void testIdFromAPreviousRunAsksClientToReload() throws Exception {
+        // Sequences start again from 1 on every run, so this one exists now but means something else
+        eventPublisher.publishEvent(new EntityChangeEvent(EntityType.PLOT, ChangeType.DELETED, 5L));
+        String previousRun = Long.toString(Long.parseLong(changeFeed.getEpoch(), 36) - 60_000, 36);
+
+        MvcResult result = mockMvc.perform(get("/api/events").header("Last-Event-ID", previousRun + ":" + (changeFeed.getSequence() - 1)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String stream = awaitContent(result, "event:reset");
+        assertFalse(stream.contains("\"entityId\":5"));
+    }
+
+    @Test
+    public void testLiveChangesAreStreamed() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        awaitContent(result, "event:ready");
+
+        eventPublisher.publishEvent(EntityChangeEvent.plantDetached(42L));
+
+        String stream = awaitContent(result, "\"entityId\":42");
+        assertTrue(stream.contains("\"changeType\":\"MOVED\""));
+        assertTrue(stream.contains("\"plotId\":null"));
+    }
+
+    private String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = result.getResponse().getContentAsString();
+        }
+        assertTrue(content.contains(expected), "Stream never contained " + expected + ": " + content);
+        return content;
+    }
+}
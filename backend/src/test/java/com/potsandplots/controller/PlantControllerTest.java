@@ -1,26 +1,42 @@
 package com.potsandplots.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.potsandplots.dto.PlantSummary;
 import com.potsandplots.model.Plant;
 import com.potsandplots.repository.PlantRepository;
 import com.potsandplots.repository.PlantTypeRepository;
+import com.potsandplots.service.ChangeTracker;
+import com.potsandplots.service.PlantBatchService;
+import com.potsandplots.service.PlantLocks;
+import com.potsandplots.service.PlotOccupancyIndex;
+import com.potsandplots.service.PositionConflictException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.*;
 
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(PlantController.class)
+@Import({PlantLocks.class, ChangeTracker.class})
 @ActiveProfiles("test")
 public class PlantControllerTest {
 
@@ -33,6 +49,12 @@ public class PlantControllerTest {
     @MockBean
     private PlantTypeRepository plantTypeRepository;
 
+    @MockBean
+    private PlotOccupancyIndex occupancyIndex;
+
+    @MockBean
+    private PlantBatchService plantBatchService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -53,6 +75,80 @@ public class PlantControllerTest {
                 .andExpect(jsonPath("$[1].name").value("Tulip"));
     }
 
+    @Test
+    public void testGetAllPlantsAsCbor() throws Exception {
+        Plant plant = new Plant("Rose", 1L, 1L);
+        plant.setId(1L);
+        plant.setNotes("Climbing, against the east wall");
+
+        when(plantRepository.findAll()).thenReturn(List.of(plant));
+
+        byte[] body = mockMvc.perform(get("/api/plants").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andExpect(header().stringValues("Vary", hasItem("Accept")))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode plants = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertEquals(1, plants.size());
+        assertEquals("Rose", plants.get(0).get("name").asText());
+        assertEquals("Climbing, against the east wall", plants.get(0).get("notes").asText());
+    }
+
+    @Test
+    public void testGetPlantsPageReturnsNextCursor() throws Exception {
+        Plant plant1 = new Plant("Rose", 1L, 1L);
+        plant1.setId(4L);
+        Plant plant2 = new Plant("Tulip", 2L, 1L);
+        plant2.setId(7L);
+
+        when(plantRepository.findByIdGreaterThanOrderByIdAsc(eq(3L), any(Pageable.class), eq(Plant.class)))
+                .thenReturn(Arrays.asList(plant1, plant2));
+
+        mockMvc.perform(get("/api/plants").param("after", "3").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].id").value(7))
+                .andExpect(header().string("X-Next-Cursor", "7"));
+
+        verify(plantRepository, never()).findAll();
+    }
+
+    @Test
+    public void testPageWithoutLimitIsCappedAndContinues() throws Exception {
+        List<Plant> page = new ArrayList<>();
+        for (long id = 4; id < 4 + CursorPage.MAX_PAGE_SIZE; id++) {
+            Plant plant = new Plant("Seedling " + id, 1L, 1L);
+            plant.setId(id);
+            page.add(plant);
+        }
+
+        when(plantRepository.findByIdGreaterThanOrderByIdAsc(eq(3L), eq(PageRequest.of(0, CursorPage.MAX_PAGE_SIZE)), eq(Plant.class)))
+                .thenReturn(page);
+
+        mockMvc.perform(get("/api/plants").param("after", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(CursorPage.MAX_PAGE_SIZE)))
+                .andExpect(header().string("X-Next-Cursor", String.valueOf(3 + CursorPage.MAX_PAGE_SIZE)));
+    }
+
+    @Test
+    public void testGetPlantSummariesOmitNotes() throws Exception {
+        Plant plant = new Plant("Rose", 1L, 1L);
+        plant.setId(1L);
+        plant.setNotes("A very long note nobody reads on the list view");
+        PlantSummary summary = new SpelAwareProxyProjectionFactory().createProjection(PlantSummary.class, plant);
+
+        when(plantRepository.findByAreaIdAndIdGreaterThanOrderByIdAsc(eq(1L), eq(0L), any(Pageable.class), eq(PlantSummary.class)))
+                .thenReturn(Arrays.asList(summary));
+
+        mockMvc.perform(get("/api/plants/area/1").param("fields", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Rose"))
+                .andExpect(jsonPath("$[0].notes").doesNotExist())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
     @Test
     public void testCreatePlantWithPositionConflict() throws Exception {
         Plant existingPlant = new Plant("Rose", 1L, 1L);
@@ -75,6 +171,120 @@ public class PlantControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    public void testCreatePlantInOccupiedPlotCell() throws Exception {
+        when(occupancyIndex.reserve(3L, 1, 1, null)).thenThrow(new PositionConflictException(1, 1));
+
+        Map<String, Object> plantData = new HashMap<>();
+        plantData.put("name", "Tulip");
+        plantData.put("speciesId", 2L);
+        plantData.put("areaId", 1L);
+        plantData.put("plotId", 3L);
+        plantData.put("positionX", 1);
+        plantData.put("positionY", 1);
+
+        mockMvc.perform(post("/api/plants")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(plantData)))
+                .andExpect(status().isBadRequest());
+
+        verify(plantRepository, never()).findByAreaIdAndPositionXAndPositionY(any(), any(), any());
+        verify(plantRepository, never()).save(any(Plant.class));
+    }
+
+    @Test
+    public void testMoveRetriesAfterVersionConflict() throws Exception {
+        Plant plant = new Plant("Rose", 1L, 1L);
+        plant.setId(1L);
+
+        when(plantRepository.findById(1L)).thenReturn(Optional.of(plant));
+        when(plantRepository.save(any(Plant.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Plant.class, 1L))
+                .thenReturn(plant);
+
+        Map<String, Object> moveData = new HashMap<>();
+        moveData.put("areaId", 2);
+        moveData.put("plotId", null);
+
+        mockMvc.perform(put("/api/plants/1/move")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(moveData)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.areaId").value(2));
+
+        verify(plantRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    public void testMoveToOccupiedCellIsRejected() throws Exception {
+        Plant plant = new Plant("Rose", 1L, 1L);
+        plant.setId(1L);
+
+        when(plantRepository.findById(1L)).thenReturn(Optional.of(plant));
+        when(occupancyIndex.reserve(3L, 0, 0, 1L)).thenThrow(new PositionConflictException(0, 0));
+
+        Map<String, Object> moveData = new HashMap<>();
+        moveData.put("plotId", 3);
+        moveData.put("positionX", 0);
+        moveData.put("positionY", 0);
+
+        mockMvc.perform(put("/api/plants/1/move")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(moveData)))
+                .andExpect(status().isBadRequest());
+
+        verify(plantRepository, never()).save(any(Plant.class));
+    }
+
+    @Test
+    public void testMoveToAnotherPlotWithoutPositionUnplacesThePlant() throws Exception {
+        Plant plant = new Plant("Rose", 1L, 1L);
+        plant.setId(1L);
+        plant.setPlotId(3L);
+        plant.setPositionX(0);
+        plant.setPositionY(0);
+
+        when(plantRepository.findById(1L)).thenReturn(Optional.of(plant));
+        when(plantRepository.save(any(Plant.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Map<String, Object> moveData = new HashMap<>();
+        moveData.put("plotId", 4);
+
+        mockMvc.perform(put("/api/plants/1/move")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(moveData)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.plotId").value(4))
+                .andExpect(jsonPath("$.positionX").value((Object) null))
+                .andExpect(jsonPath("$.positionY").value((Object) null));
+
+        verify(occupancyIndex, never()).reserve(any(), anyInt(), anyInt(), any());
+        verify(occupancyIndex).remove(1L);
+    }
+
+    @Test
+    public void testMoveOutsideThePlotIsRejected() throws Exception {
+        Plant plant = new Plant("Rose", 1L, 1L);
+        plant.setId(1L);
+
+        when(plantRepository.findById(1L)).thenReturn(Optional.of(plant));
+        when(occupancyIndex.reserve(3L, 40, 0, 1L))
+                .thenThrow(new IllegalArgumentException("Position (40, 0) is outside the plot (10 x 10)"));
+
+        Map<String, Object> moveData = new HashMap<>();
+        moveData.put("plotId", 3);
+        moveData.put("positionX", 40);
+        moveData.put("positionY", 0);
+
+        mockMvc.perform(put("/api/plants/1/move")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(moveData)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Position (40, 0) is outside the plot (10 x 10)"));
+
+        verify(plantRepository, never()).save(any(Plant.class));
+    }
+
     @Test
     public void testDeletePlant() throws Exception {
         when(plantRepository.existsById(1L)).thenReturn(true);
@@ -85,5 +295,6 @@ public class PlantControllerTest {
                 .andExpect(jsonPath("$.plantId").value(1));
 
         verify(plantRepository).deleteById(1L);
+        verify(occupancyIndex).remove(1L);
     }
 }
@@ -1,19 +1,30 @@
 package com.potsandplots.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.potsandplots.dto.GridPosition;
+import com.potsandplots.dto.PlotOccupancy;
+import com.potsandplots.dto.PlotSummary;
 import com.potsandplots.model.Plot;
 import com.potsandplots.model.Plant;
 import com.potsandplots.repository.PlotRepository;
 import com.potsandplots.repository.PlantRepository;
+import com.potsandplots.service.AutoLayoutService;
+import com.potsandplots.service.ChangeTracker;
+import com.potsandplots.service.PlotOccupancyIndex;
+import com.potsandplots.service.PlotService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.*;
 
+import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -21,6 +32,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import org.springframework.test.context.ActiveProfiles;
 
 @WebMvcTest(PlotController.class)
+@Import({PlotService.class, ChangeTracker.class})
 @ActiveProfiles("test")
 public class PlotControllerTest {
 
@@ -33,6 +45,12 @@ public class PlotControllerTest {
     @MockBean
     private PlantRepository plantRepository;
 
+    @MockBean
+    private PlotOccupancyIndex occupancyIndex;
+
+    @MockBean
+    private AutoLayoutService autoLayoutService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -54,6 +72,68 @@ public class PlotControllerTest {
                 .andExpect(jsonPath("$[0].length").value(2));
     }
 
+    @Test
+    public void testGetAllPlotsNotModifiedUntilPlotsChange() throws Exception {
+        when(plotRepository.findAll()).thenReturn(new ArrayList<>());
+
+        String etag = mockMvc.perform(get("/api/plots"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/plots").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        verify(plotRepository, times(1)).findAll();
+
+        Plot newPlot = new Plot("New Plot", 1L, "raised_bed", 2, 2);
+        newPlot.setId(9L);
+        when(plotRepository.save(any(Plot.class))).thenReturn(newPlot);
+        mockMvc.perform(post("/api/plots")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newPlot)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/plots").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+    }
+
+    @Test
+    public void testGetPlotEtagFollowsVersion() throws Exception {
+        Plot plot = new Plot("Test Plot", 1L, "raised_bed", 2, 2);
+        plot.setId(1L);
+        plot.setVersion(3L);
+        when(plotRepository.findById(1L)).thenReturn(Optional.of(plot));
+
+        String etag = mockMvc.perform(get("/api/plots/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/plots/1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        plot.setVersion(4L);
+        mockMvc.perform(get("/api/plots/1").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(4));
+    }
+
+    @Test
+    public void testGetPlotsPageReturnsNextCursor() throws Exception {
+        Plot plot = new Plot();
+        plot.setId(5L);
+        plot.setName("Test Plot");
+        plot.setAreaId(1L);
+
+        when(plotRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class), eq(Plot.class)))
+                .thenReturn(Arrays.asList(plot));
+
+        mockMvc.perform(get("/api/plots").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Test Plot"))
+                .andExpect(header().string("X-Next-Cursor", "5"));
+    }
+
     @Test
     public void testCreatePlot() throws Exception {
         Plot plot = new Plot();
@@ -77,7 +157,7 @@ public class PlotControllerTest {
     @Test
     public void testDeleteEmptyPlot() throws Exception {
         when(plotRepository.existsById(1L)).thenReturn(true);
-        when(plantRepository.findByPlotId(1L)).thenReturn(new ArrayList<>());
+        when(plantRepository.findIdsByPlotId(1L)).thenReturn(new ArrayList<>());
 
         mockMvc.perform(delete("/api/plots/1"))
                 .andExpect(status().isOk())
@@ -85,37 +165,46 @@ public class PlotControllerTest {
                 .andExpect(jsonPath("$.plantsConverted").value(0));
 
         verify(plotRepository).deleteById(1L);
+        verify(occupancyIndex).evictPlot(1L);
     }
 
     @Test
     public void testDeletePlotWithPlants() throws Exception {
-        Plant plant1 = new Plant();
-        plant1.setId(1L);
-        plant1.setName("Plant 1");
-        plant1.setPlotId(1L);
-        plant1.setPositionX(0);
-        plant1.setPositionY(0);
-
-        Plant plant2 = new Plant();
-        plant2.setId(2L);
-        plant2.setName("Plant 2");
-        plant2.setPlotId(1L);
-        plant2.setPositionX(1);
-        plant2.setPositionY(0);
-
         when(plotRepository.existsById(1L)).thenReturn(true);
-        when(plantRepository.findByPlotId(1L)).thenReturn(Arrays.asList(plant1, plant2));
-        when(plantRepository.save(any(Plant.class))).thenReturn(plant1);
+        when(plantRepository.findIdsByPlotId(1L)).thenReturn(Arrays.asList(1L, 2L));
+        when(plantRepository.detachFromPlot(1L)).thenReturn(2);
 
         mockMvc.perform(delete("/api/plots/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.plantsConverted").value(2));
 
-        verify(plantRepository, times(2)).save(any(Plant.class));
+        // Plants are detached with one bulk update rather than saved one by one
+        verify(plantRepository).detachFromPlot(1L);
+        verify(plantRepository, never()).save(any(Plant.class));
         verify(plotRepository).deleteById(1L);
     }
 
+    @Test
+    public void testGetFreeCells() throws Exception {
+        when(occupancyIndex.freeCells(1L)).thenReturn(Optional.of(Arrays.asList(
+                new GridPosition(1, 0), new GridPosition(0, 1))));
+
+        mockMvc.perform(get("/api/plots/1/free-cells"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].x").value(1))
+                .andExpect(jsonPath("$[0].y").value(0));
+    }
+
+    @Test
+    public void testGetFreeCellsOfMissingPlot() throws Exception {
+        when(occupancyIndex.freeCells(1L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/plots/1/free-cells"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     public void testDeleteNonExistentPlot() throws Exception {
         when(plotRepository.existsById(1L)).thenReturn(false);
@@ -147,4 +236,24 @@ public class PlotControllerTest {
                 .andExpect(jsonPath("$[0].areaId").value(1))
                 .andExpect(jsonPath("$[1].areaId").value(1));
     }
+
+    @Test
+    public void testGetAreaGrids() throws Exception {
+        Plot plot = new Plot("Bed", 1L, "raised-bed", 2, 1);
+        plot.setId(4L);
+        PlotSummary summary = new SpelAwareProxyProjectionFactory().createProjection(PlotSummary.class, plot);
+
+        when(plotRepository.findByAreaIdOrderByIdAsc(1L, PlotSummary.class)).thenReturn(List.of(summary));
+        when(occupancyIndex.occupancy(4L)).thenReturn(Optional.of(new PlotOccupancy(4L, 2, 1, new long[] {0, 12}, 1)));
+
+        mockMvc.perform(get("/api/plots/area/1/grid"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].plotId").value(4))
+                .andExpect(jsonPath("$[0].cells[1]").value(12))
+                .andExpect(jsonPath("$[0].freeCells").value(1))
+                .andExpect(jsonPath("$[0].fillRatio").value(0.5));
+
+        mockMvc.perform(get("/api/plots/9/grid"))
+                .andExpect(status().isNotFound());
+    }
 }
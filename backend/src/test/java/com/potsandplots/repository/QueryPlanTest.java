@@ -0,0 +1,169 @@
+package com.potsandplots.repository;
+
+import com.potsandplots.dto.PlantSummary;
+import com.potsandplots.dto.PlotSummary;
+import com.potsandplots.model.Plant;
+import com.potsandplots.model.Plot;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs every PlantRepository/PlotRepository lookup against the schema built by
+ * the Flyway migrations, captures the SQL Hibernate sends, and checks H2's
+ * EXPLAIN plan for it. Hibernate adds the garden restriction to every one of
+ * them, and (garden_id, id) is indexed, so merely avoiding a table scan proves
+ * little: a lookup by area or plot must use an index on that column, and only
+ * whole-garden reads may use the garden index. The tables are filled and
+ * analyzed first so H2 chooses plans from realistic selectivity.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:queryplandb",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        // Flyway must build the schema before JPA starts, not after
+        "spring.jpa.defer-datasource-initialization=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.potsandplots.repository.QueryPlanTest$CapturingInspector"
+})
+@ActiveProfiles("test")
+public class QueryPlanTest {
+
+    // The index a plan reads and the conditions it applies there, e.g. /* PUBLIC.IDX_PLOTS_AREA: AREA_ID = ?2 */
+    private static final Pattern INDEX = Pattern.compile("/\\* PUBLIC\\.(\\w+)(?:: ([^*]*))? \\*/");
+    // A column compared with a parameter or IS NULL in the WHERE clause
+    private static final Pattern FILTER = Pattern.compile("\"(\\w+)\" (?:= \\?|IS NULL)");
+
+    @Autowired
+    private PlantRepository plantRepository;
+
+    @Autowired
+    private PlotRepository plotRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void testLookupsUseIndexes() {
+        // 50 areas of 10 plots each, with 40 plants in every plot, all in the default garden
+        jdbcTemplate.update("insert into plots (id, name, area_id, plot_type, width, length) " +
+                "select 1000 + x, 'Plot ' || x, 1000 + mod(x, 50), 'bed', 10, 10 from system_range(1, 500)");
+        jdbcTemplate.update("insert into plants (id, name, species_id, area_id, plot_id, position_x, position_y) " +
+                "select 100000 + x, 'Plant ' || x, 1, 1000 + mod(x, 50), 1001 + mod(x, 500), mod(x / 500, 10), x / 5000 " +
+                "from system_range(1, 20000)");
+        jdbcTemplate.execute("analyze");
+
+        PageRequest page = PageRequest.of(0, 10);
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("plants.findById", () -> plantRepository.findById(1L));
+        queries.put("plants.findAll", () -> plantRepository.findAll());
+        queries.put("findByAreaId", () -> plantRepository.findByAreaId(1L));
+        queries.put("findByPlotId", () -> plantRepository.findByPlotId(1L));
+        queries.put("findByAreaIdAndPlotIdIsNull", () -> plantRepository.findByAreaIdAndPlotIdIsNull(1L));
+        queries.put("findByAreaIdAndPositionXAndPositionY", () -> plantRepository.findByAreaIdAndPositionXAndPositionY(1L, 0, 0));
+        queries.put("findByPlotId(projection)", () -> plantRepository.findByPlotId(1L, Plant.class));
+        queries.put("findIdsByPlotId", () -> plantRepository.findIdsByPlotId(1L));
+        queries.put("detachFromPlot", () -> transactionTemplate.executeWithoutResult(status -> {
+            plantRepository.detachFromPlot(-1L);
+        }));
+        queries.put("plants.findByIdGreaterThan", () -> plantRepository.findByIdGreaterThanOrderByIdAsc(0L, page, PlantSummary.class));
+        queries.put("plants.findByAreaIdAndIdGreaterThan", () -> plantRepository.findByAreaIdAndIdGreaterThanOrderByIdAsc(1L, 0L, page, Plant.class));
+        queries.put("plants.findByPlotIdAndIdGreaterThan", () -> plantRepository.findByPlotIdAndIdGreaterThanOrderByIdAsc(1L, 0L, page, Plant.class));
+        queries.put("plots.findById", () -> plotRepository.findById(1L));
+        queries.put("plots.findAll", () -> plotRepository.findAll());
+        queries.put("plots.findByAreaId", () -> plotRepository.findByAreaId(1L));
+        queries.put("plots.findByIdGreaterThan", () -> plotRepository.findByIdGreaterThanOrderByIdAsc(0L, page, PlotSummary.class));
+        queries.put("plots.findByAreaIdAndIdGreaterThan", () -> plotRepository.findByAreaIdAndIdGreaterThanOrderByIdAsc(1L, 0L, page, Plot.class));
+
+        List<String> unindexed = new ArrayList<>();
+        for (Map.Entry<String, Runnable> query : queries.entrySet()) {
+            CapturingInspector.statements.clear();
+            query.getValue().run();
+            assertFalse(CapturingInspector.statements.isEmpty(), "No SQL captured for " + query.getKey());
+            for (String sql : CapturingInspector.statements) {
+                String plan = explain(sql);
+                if (!usesSelectiveIndex(plan)) {
+                    unindexed.add(query.getKey() + ":\n" + plan);
+                }
+            }
+        }
+        assertTrue(unindexed.isEmpty(), "Queries without a fitting index:\n" + String.join("\n\n", unindexed));
+    }
+
+    @Test
+    public void testGardenIndexDoesNotCountForAnAreaLookup() {
+        String plan = "SELECT \"P1_0\".\"ID\" FROM \"PUBLIC\".\"PLOTS\" \"P1_0\" /* PUBLIC.IDX_PLOTS_GARDEN: GARDEN_ID = ?1 */ "
+                + "WHERE (\"P1_0\".\"GARDEN_ID\" = ?1) AND (\"P1_0\".\"AREA_ID\" = ?2)";
+        assertFalse(usesSelectiveIndex(plan));
+        assertTrue(usesSelectiveIndex(plan.replace("IDX_PLOTS_GARDEN: GARDEN_ID = ?1", "IDX_PLOTS_AREA: AREA_ID = ?2")));
+        assertFalse(usesSelectiveIndex(plan.replace("IDX_PLOTS_GARDEN: GARDEN_ID = ?1", "PLOTS.tableScan")));
+    }
+
+    /**
+     * Whether the plan reads an index restricted on one of the columns the query
+     * filters on, counting garden_id only when there is nothing else to filter on.
+     */
+    static boolean usesSelectiveIndex(String plan) {
+        Matcher index = INDEX.matcher(plan);
+        // A table scan reads no index, so it has no "PUBLIC.NAME: conditions" comment
+        if (!index.find() || index.group(2) == null) {
+            return false;
+        }
+        Set<String> filters = new HashSet<>();
+        Matcher filter = FILTER.matcher(plan.split("\\sWHERE\\s", 2)[1]);
+        while (filter.find()) {
+            filters.add(filter.group(1));
+        }
+        if (filters.size() > 1) {
+            filters.remove("GARDEN_ID");
+        }
+        Set<String> used = new HashSet<>();
+        Matcher condition = Pattern.compile("(\\w+) (?:= \\?|IS NULL)").matcher(index.group(2));
+        while (condition.find()) {
+            used.add(condition.group(1));
+        }
+        used.retainAll(filters);
+        return !used.isEmpty();
+    }
+
+    // Binds "1" to every parameter; the plan only depends on which columns are compared. A string
+    // converts to a numeric column's type, while a number would turn garden_id into a number instead
+    private String explain(String sql) {
+        Object[] args = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+        Arrays.fill(args, "1");
+        return jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args).get(0);
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+
+        private static final long serialVersionUID = 1L;
+
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
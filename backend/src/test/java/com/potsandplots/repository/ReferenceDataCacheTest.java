@@ -0,0 +1,72 @@
+package com.potsandplots.repository;
+
+import com.potsandplots.config.CacheConfig;
+import com.potsandplots.config.GardenContext;
+import com.potsandplots.model.Area;
+import com.potsandplots.model.PlantType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ReferenceDataCacheTest {
+
+    @Autowired
+    private AreaRepository areaRepository;
+
+    @Autowired
+    private PlantTypeRepository plantTypeRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    public void clearCaches() {
+        cacheManager.getCache(CacheConfig.AREAS).clear();
+        cacheManager.getCache(CacheConfig.PLANT_TYPES).clear();
+    }
+
+    @Test
+    public void testAreaReadsAreCachedAndEvictedOnSave() {
+        Cache cache = cacheManager.getCache(CacheConfig.AREAS);
+
+        List<Area> first = areaRepository.findAll();
+        assertNotNull(cache.get(CacheConfig.keyFor(GardenContext.DEFAULT)));
+        assertSame(first, areaRepository.findAll());
+
+        Area saved = areaRepository.save(new Area("Balcony", "outdoor", false, false, "medium"));
+        assertNull(cache.get(CacheConfig.keyFor(GardenContext.DEFAULT)));
+        assertTrue(areaRepository.findAll().stream().anyMatch(a -> a.getId().equals(saved.getId())));
+    }
+
+    @Test
+    public void testPlantTypeLookupsAreCached() {
+        PlantType saved = plantTypeRepository.save(new PlantType("Basil", "Ocimum basilicum", false));
+        Cache cache = cacheManager.getCache(CacheConfig.PLANT_TYPES);
+
+        assertTrue(plantTypeRepository.findById(saved.getId()).isPresent());
+        assertNotNull(cache.get(CacheConfig.keyFor(GardenContext.DEFAULT, saved.getId())));
+        assertSame(plantTypeRepository.findById(saved.getId()).get(),
+                plantTypeRepository.findById(saved.getId()).get());
+    }
+
+    @Test
+    public void testCachesAreKeptPerGarden() {
+        Area saved = areaRepository.save(new Area("Porch", "outdoor", true, false, "low"));
+        assertTrue(areaRepository.findById(saved.getId()).isPresent());
+
+        assertFalse(GardenContext.callIn("cache-test", () -> areaRepository.findById(saved.getId())).isPresent());
+        assertTrue(GardenContext.callIn("cache-test", areaRepository::findAll).stream()
+                .noneMatch(a -> a.getId().equals(saved.getId())));
+        assertTrue(areaRepository.findAll().stream().anyMatch(a -> a.getId().equals(saved.getId())));
+    }
+}
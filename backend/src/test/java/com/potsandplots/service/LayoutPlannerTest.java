@@ -0,0 +1,99 @@
+package com.potsandplots.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LayoutPlannerTest {
+
+    private static final long TOMATO = 1L;
+    private static final long BASIL = 2L;
+    private static final long FENNEL = 3L;
+
+    private static long deadline(long millis) {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private static int distance(int a, int b, int width) {
+        return Math.max(Math.abs(a % width - b % width), Math.abs(a / width - b / width));
+    }
+
+    private static List<LayoutPlanner.Piece> pieces(long typeId, int spacing, int count) {
+        return new ArrayList<>(Collections.nCopies(count, new LayoutPlanner.Piece(typeId, spacing)));
+    }
+
+    @Test
+    public void testSpacingIsRespected() {
+        LayoutPlanner planner = new LayoutPlanner(5, 5, Map.of(), Map.of());
+        int[] cells = planner.plan(pieces(TOMATO, 1, 10), deadline(100));
+
+        // Every other row and column: nine fit, the tenth does not
+        assertEquals(9, java.util.Arrays.stream(cells).filter(cell -> cell >= 0).count());
+        for (int i = 0; i < cells.length; i++) {
+            for (int j = i + 1; j < cells.length; j++) {
+                if (cells[i] >= 0 && cells[j] >= 0) {
+                    assertTrue(distance(cells[i], cells[j], 5) > 1);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFixedPlantsAreWorkedAround() {
+        LayoutPlanner planner = new LayoutPlanner(3, 1, Map.of(), Map.of());
+        planner.fix(new LayoutPlanner.Piece(TOMATO, 0), 1, 0);
+        int[] cells = planner.plan(pieces(BASIL, 0, 3), deadline(100));
+
+        assertArrayEquals(new int[] {0, 2, -1}, cells);
+    }
+
+    @Test
+    public void testCompanionsGoNextToEachOther() {
+        Map<Long, Set<Long>> companions = Map.of(TOMATO, Set.of(BASIL), BASIL, Set.of(TOMATO));
+        LayoutPlanner planner = new LayoutPlanner(10, 10, companions, Map.of());
+        planner.fix(new LayoutPlanner.Piece(TOMATO, 0), 6, 6);
+        int[] cells = planner.plan(pieces(BASIL, 0, 1), deadline(100));
+
+        assertEquals(1, distance(cells[0], 66, 10));
+    }
+
+    @Test
+    public void testSearchFindsLayoutGreedyPlacementMisses() {
+        // Placed greedily, basil sits next to the tomato at 0 and leaves no room for the fennel
+        Map<Long, Set<Long>> companions = Map.of(TOMATO, Set.of(BASIL), BASIL, Set.of(TOMATO));
+        Map<Long, Set<Long>> antagonists = Map.of(BASIL, Set.of(FENNEL), FENNEL, Set.of(BASIL));
+        LayoutPlanner planner = new LayoutPlanner(4, 1, companions, antagonists);
+        List<LayoutPlanner.Piece> pieces = List.of(new LayoutPlanner.Piece(TOMATO, 0),
+                new LayoutPlanner.Piece(BASIL, 0), new LayoutPlanner.Piece(FENNEL, 0));
+        int[] cells = planner.plan(pieces, deadline(1000));
+
+        assertTrue(cells[0] >= 0 && cells[1] >= 0 && cells[2] >= 0);
+        assertTrue(distance(cells[1], cells[2], 4) > LayoutPlanner.ANTAGONIST_DISTANCE);
+        assertEquals(1, distance(cells[0], cells[1], 4));
+    }
+
+    @Test
+    public void testLargeBedIsPackedQuickly() {
+        Map<Long, Set<Long>> companions = Map.of(TOMATO, Set.of(BASIL), BASIL, Set.of(TOMATO));
+        Map<Long, Set<Long>> antagonists = Map.of(BASIL, Set.of(FENNEL), FENNEL, Set.of(BASIL));
+        List<LayoutPlanner.Piece> pieces = pieces(TOMATO, 1, 1000);
+        pieces.addAll(pieces(BASIL, 0, 2000));
+        pieces.addAll(pieces(FENNEL, 0, 500));
+
+        long started = System.nanoTime();
+        int[] cells = new LayoutPlanner(100, 100, companions, antagonists).plan(pieces, deadline(100));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertEquals(pieces.size(), cells.length);
+        assertTrue(java.util.Arrays.stream(cells).filter(cell -> cell >= 0).count() > 3000);
+        // The budget is 100ms; leave room for a cold JIT on a slow build machine
+        assertTrue(elapsedMillis < 1000, "Took " + elapsedMillis + " ms");
+    }
+}
@@ -0,0 +1,140 @@
+package com.potsandplots.service;
+
+import com.potsandplots.dto.GridPosition;
+import com.potsandplots.dto.PlantPosition;
+import com.potsandplots.dto.PlotOccupancy;
+import com.potsandplots.event.PositionConflictEvent;
+import com.potsandplots.model.Plant;
+import com.potsandplots.model.Plot;
+import com.potsandplots.repository.PlantRepository;
+import com.potsandplots.repository.PlotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PlotOccupancyIndexTest {
+
+    @Mock
+    private PlotRepository plotRepository;
+
+    @Mock
+    private PlantRepository plantRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private PlotOccupancyIndex occupancyIndex;
+
+    @BeforeEach
+    public void setUp() {
+        Plot plot = new Plot("Bed", 1L, "raised-bed", 3, 2);
+        plot.setId(1L);
+        Plant plant = new Plant("Tomato", 1L, 1L);
+        plant.setId(10L);
+        plant.setPlotId(1L);
+        plant.setPositionX(1);
+        plant.setPositionY(0);
+        PlantPosition position = new SpelAwareProxyProjectionFactory().createProjection(PlantPosition.class, plant);
+
+        lenient().when(plotRepository.findById(1L)).thenReturn(Optional.of(plot));
+        lenient().when(plantRepository.findByPlotId(1L, PlantPosition.class)).thenReturn(Arrays.asList(position));
+    }
+
+    @Test
+    public void testOccupantLoadedOnceFromDatabase() {
+        assertEquals(10L, occupancyIndex.occupantAt(1L, 1, 0));
+        assertNull(occupancyIndex.occupantAt(1L, 0, 0));
+        assertNull(occupancyIndex.occupantAt(1L, 2, 1));
+
+        verify(plantRepository, times(1)).findByPlotId(1L, PlantPosition.class);
+    }
+
+    @Test
+    public void testPlaceMovesPlantBetweenCells() {
+        occupancyIndex.occupantAt(1L, 0, 0);
+        occupancyIndex.place(10L, 1L, 2, 1);
+
+        assertNull(occupancyIndex.occupantAt(1L, 1, 0));
+        assertEquals(10L, occupancyIndex.occupantAt(1L, 2, 1));
+
+        occupancyIndex.remove(10L);
+        assertNull(occupancyIndex.occupantAt(1L, 2, 1));
+    }
+
+    @Test
+    public void testReservingAnOccupiedCellIsRejectedAndReported() {
+        assertThrows(PositionConflictException.class, () -> occupancyIndex.reserve(1L, 1, 0, null));
+        verify(eventPublisher).publishEvent(any(PositionConflictEvent.class));
+
+        occupancyIndex.reserve(1L, 0, 0, null).commit(11L);
+        assertEquals(11L, occupancyIndex.occupantAt(1L, 0, 0));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @Test
+    public void testFreeCellsInRowMajorOrder() {
+        List<GridPosition> free = occupancyIndex.freeCells(1L).orElseThrow();
+
+        assertEquals(5, free.size());
+        assertEquals(0, free.get(0).getX());
+        assertEquals(0, free.get(0).getY());
+        assertEquals(2, free.get(1).getX());
+        assertEquals(0, free.get(1).getY());
+    }
+
+    @Test
+    public void testFreeCellsStopAtTheRequestedCount() {
+        List<GridPosition> free = occupancyIndex.freeCells(1L, 2).orElseThrow();
+
+        assertEquals(2, free.size());
+        assertEquals(2, free.get(1).getX());
+        assertEquals(0, free.get(1).getY());
+    }
+
+    @Test
+    public void testRejectsCellsOutsideThePlot() {
+        assertThrows(IllegalArgumentException.class, () -> occupancyIndex.occupantAt(1L, 3, 0));
+        assertThrows(IllegalArgumentException.class, () -> occupancyIndex.occupantAt(1L, 0, 2));
+    }
+
+    @Test
+    public void testMissingPlot() {
+        when(plotRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertTrue(occupancyIndex.freeCells(2L).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> occupancyIndex.occupantAt(2L, 0, 0));
+    }
+
+    @Test
+    public void testOccupancyFollowsPlacementsAndHidesReservations() {
+        PlotOccupancy before = occupancyIndex.occupancy(1L).orElseThrow();
+        assertArrayEquals(new long[] {0, 10, 0, 0, 0, 0}, before.getCells());
+        assertEquals(1, before.getOccupiedCells());
+        assertEquals(5, before.getFreeCells());
+
+        PlotOccupancyIndex.Reservation reservation = occupancyIndex.reserve(1L, 0, 1, null);
+        occupancyIndex.place(10L, 1L, 2, 1);
+        PlotOccupancy after = occupancyIndex.occupancy(1L).orElseThrow();
+        assertArrayEquals(new long[] {0, 0, 0, 0, 0, 10}, after.getCells());
+        assertEquals(1.0 / 6, after.getFillRatio(), 1e-9);
+
+        reservation.commit(11L);
+        assertEquals(11L, occupancyIndex.occupancy(1L).orElseThrow().getCells()[3]);
+        assertEquals(2, occupancyIndex.occupancy(1L).orElseThrow().getOccupiedCells());
+        assertTrue(occupancyIndex.occupancy(2L).isEmpty());
+    }
+}
@@ -0,0 +1,138 @@
+package com.potsandplots.service;
+
+import com.potsandplots.config.CacheConfig;
+import com.potsandplots.config.GardenContext;
+import com.potsandplots.event.EntityChangeEvent;
+import com.potsandplots.event.EntityChangeEvent.ChangeType;
+import com.potsandplots.event.EntityChangeEvent.EntityType;
+import com.potsandplots.model.Area;
+import com.potsandplots.model.PlantType;
+import com.potsandplots.model.Plot;
+import com.potsandplots.repository.AreaRepository;
+import com.potsandplots.repository.PlotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PlotSuitabilityIndexTest {
+
+    @Mock
+    private PlotRepository plotRepository;
+
+    @Mock
+    private AreaRepository areaRepository;
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.PLOT_RANKINGS);
+
+    @InjectMocks
+    private PlotSuitabilityIndex suitabilityIndex;
+
+    private Plot sunnyBed;
+    private Plot shadyBed;
+    private PlantType tomato;
+    private PlantType mint;
+
+    private Plot plot(long id, long areaId, String soilType, String drainage, double ph) {
+        Plot plot = new Plot("Plot " + id, areaId, "raised_bed", 2, 2);
+        plot.setId(id);
+        plot.setSoilType(soilType);
+        plot.setDrainageLevel(drainage);
+        plot.setPh(ph);
+        return plot;
+    }
+
+    private PlantType plantType(long id, String light, String water, String soil) {
+        PlantType plantType = new PlantType("Type " + id, null, true);
+        plantType.setId(id);
+        plantType.setVersion(0L);
+        plantType.setLightRequirements(light);
+        plantType.setWaterRequirements(water);
+        plantType.setSoilRequirements(soil);
+        return plantType;
+    }
+
+    @BeforeEach
+    public void setUp() {
+        Area sunny = new Area("Front Garden", "outdoor", false, false, "high");
+        sunny.setId(1L);
+        Area shady = new Area("North Side", "outdoor", false, false, "low");
+        shady.setId(2L);
+        sunnyBed = plot(10L, 1L, "loam", "good", 6.8);
+        shadyBed = plot(20L, 2L, "clay", "poor", 6.0);
+
+        lenient().when(areaRepository.findAll()).thenReturn(Arrays.asList(sunny, shady));
+        lenient().when(plotRepository.findAll()).thenReturn(Arrays.asList(shadyBed, sunnyBed));
+
+        tomato = plantType(1L, "full sun", "regular, deep watering", "rich, well-draining");
+        mint = plantType(2L, "shade", "frequent", "moist, rich");
+    }
+
+    private int cachedRankings() {
+        return ((Map<?, ?>) cacheManager.getCache(CacheConfig.PLOT_RANKINGS).getNativeCache()).size();
+    }
+
+    private List<Long> ranking(PlantType plantType) {
+        return suitabilityIndex.rank(plantType).stream()
+                .map(PlotSuitabilityIndex.RankedPlot::getPlotId)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testPlotsRankedBySuitability() {
+        assertEquals(List.of(10L, 20L), ranking(tomato));
+        assertEquals(List.of(20L, 10L), ranking(mint));
+
+        double best = suitabilityIndex.rank(tomato).get(0).getScore();
+        assertTrue(best > 0.8 && best <= 1.0);
+    }
+
+    @Test
+    public void testRankingsCachedUntilAPlotChanges() {
+        List<PlotSuitabilityIndex.RankedPlot> first = suitabilityIndex.rank(tomato);
+        assertSame(first, suitabilityIndex.rank(tomato));
+        verify(plotRepository, times(1)).findAll();
+
+        // The sunny bed is turned into a boggy one
+        sunnyBed.setSoilType("peat");
+        sunnyBed.setDrainageLevel("poor");
+        suitabilityIndex.onEntityChange(new EntityChangeEvent(EntityType.PLOT, ChangeType.UPDATED, 10L, sunnyBed));
+        shadyBed.setDrainageLevel("excellent");
+        shadyBed.setSoilType("loam");
+        suitabilityIndex.onEntityChange(new EntityChangeEvent(EntityType.PLOT, ChangeType.UPDATED, 20L, shadyBed));
+
+        assertEquals(0, cachedRankings());
+        assertNotSame(first, suitabilityIndex.rank(tomato));
+        verify(plotRepository, times(2)).findAll();
+        assertEquals(1, cachedRankings());
+    }
+
+    @Test
+    public void testGardensAreRankedSeparately() {
+        List<PlotSuitabilityIndex.RankedPlot> first = suitabilityIndex.rank(tomato);
+
+        GardenContext.runIn("other", () -> suitabilityIndex.onEntityChange(
+                new EntityChangeEvent(EntityType.PLOT, ChangeType.CREATED, 30L)));
+        assertSame(first, suitabilityIndex.rank(tomato));
+        assertEquals(1, cachedRankings());
+
+        when(plotRepository.findAll()).thenReturn(List.of());
+        assertTrue(GardenContext.callIn("other", () -> suitabilityIndex.rank(tomato)).isEmpty());
+        assertEquals(List.of(10L, 20L), ranking(tomato));
+    }
+}
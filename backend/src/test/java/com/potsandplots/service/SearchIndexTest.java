@@ -0,0 +1,181 @@
+package com.potsandplots.service;
+
+import com.potsandplots.config.GardenContext;
+import com.potsandplots.dto.SearchHit;
+import com.potsandplots.event.EntityChangeEvent;
+import com.potsandplots.event.EntityChangeEvent.ChangeType;
+import com.potsandplots.event.EntityChangeEvent.EntityType;
+import com.potsandplots.model.Plant;
+import com.potsandplots.model.PlantType;
+import com.potsandplots.repository.PlantRepository;
+import com.potsandplots.repository.PlantTypeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SearchIndexTest {
+
+    @Mock
+    private PlantRepository plantRepository;
+
+    @Mock
+    private PlantTypeRepository plantTypeRepository;
+
+    @InjectMocks
+    private SearchIndex searchIndex;
+
+    private Plant plant(long id, String name, String notes) {
+        Plant plant = new Plant(name, 1L, 1L);
+        plant.setId(id);
+        plant.setNotes(notes);
+        return plant;
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        PlantType tomato = new PlantType("Tomato", "Solanum lycopersicum", true);
+        tomato.setId(1L);
+        when(plantRepository.findAllGardenIds()).thenReturn(List.of(GardenContext.DEFAULT));
+        when(plantTypeRepository.findAll()).thenReturn(List.of(tomato));
+        when(plantRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class), eq(Plant.class)))
+                .thenReturn(List.of(plant(1L, "Cherry Tomatoes", "Staked against the south fence"),
+                        plant(2L, "Basil", "Pinch out the flowers")));
+
+        searchIndex.open();
+        searchIndex.rebuild();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        searchIndex.close();
+    }
+
+    private List<String> search(String text, String type) throws Exception {
+        return searchIndex.search(text, type, 10).stream()
+                .map(hit -> hit.getType() + ":" + hit.getId())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testPrefixAndFuzzyMatches() throws Exception {
+        assertEquals(List.of("plant:1"), search("cherry", null));
+        assertEquals(List.of("plant:2"), search("bas", null));
+        assertEquals(List.of("plant:2"), search("basli", null));
+        assertEquals(List.of("plantType:1"), search("solanum", null));
+        assertEquals(List.of("plant:1"), search("fence", null));
+        assertTrue(search("tomato", null).containsAll(List.of("plant:1", "plantType:1")));
+        assertEquals(List.of("plantType:1"), search("tomato", SearchIndex.TYPE_PLANT_TYPE));
+        assertTrue(search("zucchini", null).isEmpty());
+        assertTrue(search("  ", null).isEmpty());
+    }
+
+    @Test
+    public void testEveryWordMustMatch() throws Exception {
+        assertEquals(List.of("plant:1"), search("cherry fence", null));
+        assertTrue(search("basil fence", null).isEmpty());
+    }
+
+    @Test
+    public void testWritesAreSearchableImmediately() throws Exception {
+        searchIndex.onEntityChange(new EntityChangeEvent(EntityType.PLANT, ChangeType.CREATED, 3L,
+                plant(3L, "Rosemary", "Drought tolerant")));
+        SearchHit hit = searchIndex.search("rosemary", null, 10).get(0);
+        assertEquals(3L, hit.getId());
+        assertEquals("Rosemary", hit.getName());
+
+        searchIndex.onEntityChange(new EntityChangeEvent(EntityType.PLANT, ChangeType.UPDATED, 2L,
+                plant(2L, "Sweet Basil", "Pinch out the flowers")));
+        assertEquals(List.of("plant:2"), search("sweet", null));
+
+        searchIndex.onEntityChange(new EntityChangeEvent(EntityType.PLANT, ChangeType.DELETED, 1L));
+        assertEquals(List.of("plantType:1"), search("tomato", null));
+    }
+
+    @Test
+    public void testSearchesStayInTheirGarden() throws Exception {
+        GardenContext.set("other");
+        try {
+            searchIndex.onEntityChange(new EntityChangeEvent(EntityType.PLANT, ChangeType.CREATED, 4L,
+                    plant(4L, "Cherry Plum", "Against the back wall")));
+            assertEquals(List.of("plant:4"), search("cherry", null));
+        } finally {
+            GardenContext.clear();
+        }
+        assertEquals(List.of("plant:1"), search("cherry", null));
+    }
+
+    @Test
+    public void testIndexOnDiskIsOnlyRebuiltWhenStale(@TempDir Path dir) throws Exception {
+        searchIndex.close();
+        ReflectionTestUtils.setField(searchIndex, "indexDir", dir.toString());
+        when(plantRepository.findSearchFingerprint()).thenReturn("2:2:0:1:1:0");
+
+        // Empty, so built from the database
+        searchIndex.open();
+        searchIndex.rebuildIfStale();
+        searchIndex.close();
+        verify(plantRepository, times(2)).findAllGardenIds();
+
+        // Unchanged, so reused as it was
+        searchIndex.open();
+        searchIndex.rebuildIfStale();
+        verify(plantRepository, times(2)).findAllGardenIds();
+        assertEquals(List.of("plant:2"), search("basil", null));
+
+        // Basil was deleted while the application was down
+        searchIndex.close();
+        when(plantRepository.findSearchFingerprint()).thenReturn("1:2:0:1:1:0");
+        when(plantRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class), eq(Plant.class)))
+                .thenReturn(List.of(plant(1L, "Cherry Tomatoes", "Staked against the south fence")));
+        searchIndex.open();
+        searchIndex.rebuildIfStale();
+        verify(plantRepository, times(3)).findAllGardenIds();
+        assertTrue(search("basil", null).isEmpty());
+        assertEquals(List.of("plant:1"), search("cherry", null));
+    }
+
+    @Test
+    public void testWritesAfterTheLastCommitAreFingerprintedAtShutdown(@TempDir Path dir) throws Exception {
+        searchIndex.close();
+        ReflectionTestUtils.setField(searchIndex, "indexDir", dir.toString());
+        when(plantRepository.findSearchFingerprint()).thenReturn("2:2:0:1:1:0");
+        searchIndex.open();
+        searchIndex.rebuildIfStale();
+        verify(plantRepository, times(2)).findAllGardenIds();
+
+        // Closed without a fingerprint, so the index cannot vouch for its last write
+        searchIndex.onEntityChange(new EntityChangeEvent(EntityType.PLANT, ChangeType.CREATED, 3L,
+                plant(3L, "Chives", "By the back door")));
+        searchIndex.close();
+        when(plantRepository.findSearchFingerprint()).thenReturn("3:3:0:1:1:0");
+        searchIndex.open();
+        searchIndex.rebuildIfStale();
+        verify(plantRepository, times(3)).findAllGardenIds();
+
+        // Fingerprinted as the context closed, so reused as it was
+        searchIndex.onEntityChange(new EntityChangeEvent(EntityType.PLANT, ChangeType.CREATED, 3L,
+                plant(3L, "Chives", "By the back door")));
+        searchIndex.fingerprintForShutdown();
+        searchIndex.close();
+        searchIndex.open();
+        searchIndex.rebuildIfStale();
+        verify(plantRepository, times(3)).findAllGardenIds();
+        assertEquals(List.of("plant:3"), search("chives", null));
+    }
+}
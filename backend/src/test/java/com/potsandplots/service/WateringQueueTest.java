@@ -0,0 +1,130 @@
+package com.potsandplots.service;
+
+import com.potsandplots.config.GardenContext;
+import com.potsandplots.dto.PlantSchedule;
+import com.potsandplots.dto.WateringTask;
+import com.potsandplots.event.EntityChangeEvent;
+import com.potsandplots.event.EntityChangeEvent.ChangeType;
+import com.potsandplots.event.EntityChangeEvent.EntityType;
+import com.potsandplots.model.Plant;
+import com.potsandplots.repository.PlantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class WateringQueueTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+
+    @Mock
+    private PlantRepository plantRepository;
+
+    @InjectMocks
+    private WateringQueue wateringQueue;
+
+    private Plant plant(long id, String schedule, int wateredDaysAgo) {
+        Plant plant = new Plant("Plant " + id, 1L, 1L);
+        plant.setId(id);
+        plant.setWateringSchedule(schedule);
+        plant.setLastWatered(NOW.minus(Duration.ofDays(wateredDaysAgo)));
+        return plant;
+    }
+
+    @BeforeEach
+    public void setUp() {
+        SpelAwareProxyProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+        List<PlantSchedule> plants = new ArrayList<>();
+        plants.add(projections.createProjection(PlantSchedule.class, plant(1L, "daily", 3)));
+        plants.add(projections.createProjection(PlantSchedule.class, plant(2L, "weekly", 1)));
+        plants.add(projections.createProjection(PlantSchedule.class, plant(3L, "every-other-day", 1)));
+        plants.add(projections.createProjection(PlantSchedule.class, plant(4L, "as-needed", 30)));
+        lenient().when(plantRepository.findAllBy(PlantSchedule.class)).thenReturn(plants);
+    }
+
+    private List<Long> dueIds(Instant before) {
+        return wateringQueue.dueBefore(before, 100).stream()
+                .map(WateringTask::getPlantId)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testDueTasksSoonestFirst() {
+        assertEquals(3, wateringQueue.size());
+        assertEquals(List.of(1L), dueIds(NOW));
+        assertEquals(List.of(1L, 3L), dueIds(NOW.plus(Duration.ofDays(2))));
+        assertEquals(List.of(1L, 3L, 2L), dueIds(NOW.plus(Duration.ofDays(7))));
+        assertEquals(List.of(1L, 3L), wateringQueue.dueBefore(NOW.plus(Duration.ofDays(7)), 2).stream()
+                .map(WateringTask::getPlantId).collect(Collectors.toList()));
+
+        verify(plantRepository, times(1)).findAllBy(PlantSchedule.class);
+    }
+
+    @Test
+    public void testQueueFollowsPlantChanges() {
+        wateringQueue.size();
+
+        Plant watered = plant(1L, "daily", 0);
+        wateringQueue.onEntityChange(new EntityChangeEvent(EntityType.PLANT, ChangeType.UPDATED, 1L, watered));
+        assertEquals(NOW.plus(Duration.ofDays(1)), wateringQueue.taskFor(1L).getDueAt());
+
+        Plant created = plant(5L, "monthly", 40);
+        wateringQueue.onEntityChange(new EntityChangeEvent(EntityType.PLANT, ChangeType.CREATED, 5L, created));
+        assertEquals(List.of(5L), dueIds(NOW));
+
+        wateringQueue.onEntityChange(new EntityChangeEvent(EntityType.PLANT, ChangeType.DELETED, 5L));
+        wateringQueue.onEntityChange(new EntityChangeEvent(EntityType.PLANT, ChangeType.UPDATED, 3L, plant(3L, "as-needed", 1)));
+        assertNull(wateringQueue.taskFor(3L));
+        assertEquals(List.of(1L, 2L), dueIds(NOW.plus(Duration.ofDays(30))));
+    }
+
+    @Test
+    public void testGardensHaveSeparateQueues() {
+        assertEquals(3, wateringQueue.size());
+        when(plantRepository.findAllBy(PlantSchedule.class)).thenReturn(List.of());
+        assertEquals(0, (int) GardenContext.callIn("other", wateringQueue::size));
+
+        wateringQueue.onEntityChange(new EntityChangeEvent(EntityType.PLANT, ChangeType.CREATED, 5L, plant(5L, "daily", 3)));
+        assertEquals(4, wateringQueue.size());
+        assertEquals(0, (int) GardenContext.callIn("other", wateringQueue::size));
+        assertNull(GardenContext.callIn("other", () -> wateringQueue.taskFor(1L)));
+    }
+
+    @Test
+    public void testUnwateredPlantCountsFromPlantedDate() {
+        Plant plant = new Plant("Seedling", 1L, 1L);
+        plant.setId(6L);
+        plant.setWateringSchedule("Every 3 days");
+        plant.setPlantedDate(LocalDate.of(2024, 5, 1));
+        wateringQueue.size();
+        wateringQueue.onEntityChange(new EntityChangeEvent(EntityType.PLANT, ChangeType.CREATED, 6L, plant));
+
+        WateringTask task = wateringQueue.taskFor(6L);
+        assertEquals(LocalDate.of(2024, 5, 4).atStartOfDay(java.time.ZoneId.systemDefault()).toInstant(), task.getDueAt());
+    }
+
+    @Test
+    public void testScheduleParsing() {
+        assertEquals(Period.ofDays(1), WateringRecurrence.parse("Daily").orElseThrow().getInterval());
+        assertEquals(Period.ofWeeks(2), WateringRecurrence.parse("bi weekly").orElseThrow().getInterval());
+        assertEquals(Duration.ofHours(84), WateringRecurrence.parse("twice-weekly").orElseThrow().getInterval());
+        assertTrue(WateringRecurrence.parse("as-needed").isEmpty());
+        assertTrue(WateringRecurrence.parse("every 0 days").isEmpty());
+        assertTrue(WateringRecurrence.parse(null).isEmpty());
+    }
+}
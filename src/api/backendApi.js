@@ -35,6 +35,19 @@ const apiCall = async (endpoint, options = {}) => {
   return handleResponse(response);
 };
 
+export async function getDashboard() {
+  return apiCall('/dashboard');
+}
+
+// Subscribe to the server-sent change feed. Returns a function that closes it.
+// The browser reconnects on its own and resumes from the last event it received.
+export function subscribeToChanges(since, onChange, onReset) {
+  const source = new EventSource(`${API_BASE_URL}/events?since=${since}`);
+  source.addEventListener('change', (event) => onChange(JSON.parse(event.data)));
+  source.addEventListener('reset', () => onReset());
+  return () => source.close();
+}
+
 export async function getAreas() {
   return apiCall('/areas');
 }
@@ -43,6 +56,15 @@ export async function getPlots() {
   return apiCall('/plots');
 }
 
+// Occupancy grid of a plot: cells[y * width + x] is the plant id in that cell, or 0 if free
+export async function getPlotGrid(plotId) {
+  return apiCall(`/plots/${plotId}/grid`);
+}
+
+export async function getAreaPlotGrids(areaId) {
+  return apiCall(`/plots/area/${areaId}/grid`);
+}
+
 export async function getPlants() {
   return apiCall('/plants');
 }
@@ -31,6 +31,27 @@ describe('Backend API', () => {
     expect(result).toEqual(mockPlants);
   });
 
+  test('getDashboard returns all dashboard collections', async () => {
+    const mockSnapshot = {
+      areas: [{ id: 1, name: 'Front Garden' }],
+      plots: [{ id: 1, name: 'Tomato Bed', areaId: 1 }],
+      plants: [{ id: 1, name: 'Tomato', areaId: 1, plotId: 1 }],
+      plantTypes: [{ id: 1, commonName: 'Tomato' }]
+    };
+
+    fetch.mockResolvedValueOnce({
+      ok: true,
+      json: async () => mockSnapshot,
+    });
+
+    const result = await api.getDashboard();
+
+    expect(fetch).toHaveBeenCalledWith('http://localhost:8080/api/dashboard', {
+      headers: { 'Content-Type': 'application/json' }
+    });
+    expect(result).toEqual(mockSnapshot);
+  });
+
   test('addPlant creates new plant', async () => {
     const newPlant = { id: 1, name: 'New Tomato', speciesId: 1, areaId: 1 };
     const plantData = {
@@ -141,6 +162,27 @@ describe('Backend API', () => {
     expect(result).toEqual(successResponse);
   });
 
+  test('subscribeToChanges streams parsed change events', () => {
+    const listeners = {};
+    const close = jest.fn();
+    global.EventSource = jest.fn(() => ({
+      addEventListener: (name, listener) => { listeners[name] = listener; },
+      close,
+    }));
+    const onChange = jest.fn();
+    const onReset = jest.fn();
+
+    const unsubscribe = api.subscribeToChanges(5, onChange, onReset);
+    listeners.change({ data: '{"sequence":6,"entityType":"PLANT","changeType":"DELETED","entityId":1}' });
+    listeners.reset({});
+    unsubscribe();
+
+    expect(EventSource).toHaveBeenCalledWith('http://localhost:8080/api/events?since=5');
+    expect(onChange).toHaveBeenCalledWith({ sequence: 6, entityType: 'PLANT', changeType: 'DELETED', entityId: 1 });
+    expect(onReset).toHaveBeenCalled();
+    expect(close).toHaveBeenCalled();
+  });
+
   test('API handles error responses', async () => {
     fetch.mockResolvedValueOnce({
       ok: false,
@@ -1,4 +1,4 @@
-import { render, screen, fireEvent, waitFor } from '@testing-library/react';
+import { render, screen, fireEvent, waitFor, act } from '@testing-library/react';
 import { MemoryRouter } from 'react-router-dom';
 import PlantDashboard from '../pages/PlantDashboard';
 import * as api from '../api/backendApi';
@@ -54,10 +54,13 @@ const mockPlantTypes = [
 
 describe('PlantDashboard', () => {
   beforeEach(() => {
-    api.getAreas.mockResolvedValue(mockAreas);
-    api.getPlots.mockResolvedValue(mockPlots);
+    api.getDashboard.mockResolvedValue({
+      areas: mockAreas,
+      plots: mockPlots,
+      plants: mockPlants,
+      plantTypes: mockPlantTypes
+    });
     api.getPlants.mockResolvedValue(mockPlants);
-    api.getPlantTypes.mockResolvedValue(mockPlantTypes);
   });
 
   afterEach(() => {
@@ -142,9 +145,12 @@ describe('PlantDashboard', () => {
   });
 
   test('shows empty areas message when no areas exist', async () => {
-    api.getAreas.mockResolvedValue([]);
-    api.getPlots.mockResolvedValue([]);
-    api.getPlants.mockResolvedValue([]);
+    api.getDashboard.mockResolvedValue({
+      areas: [],
+      plots: [],
+      plants: [],
+      plantTypes: []
+    });
 
     render(
       <MemoryRouter>
@@ -190,14 +196,6 @@ describe('PlantDashboard', () => {
       plantsConverted: 1
     };
     api.removePlot.mockResolvedValue(mockResponse);
-    api.getPlants.mockResolvedValue([
-      {
-        ...mockPlants[0],
-        plotId: null,
-        positionX: null,
-        positionY: null
-      }
-    ]);
 
     render(
       <MemoryRouter>
@@ -224,5 +222,40 @@ describe('PlantDashboard', () => {
         'Plot "Tomato Bed" removed successfully. 1 plant converted to free-standing.'
       );
     });
+    // Detached plants are updated in place rather than by reloading every plant
+    expect(api.getPlants).not.toHaveBeenCalled();
+  });
+
+  test('applies change feed events without reloading', async () => {
+    let onChange;
+    api.subscribeToChanges.mockImplementation((since, changeListener) => {
+      onChange = changeListener;
+      return jest.fn();
+    });
+
+    render(
+      <MemoryRouter>
+        <PlantDashboard />
+      </MemoryRouter>
+    );
+
+    await waitFor(() => {
+      expect(api.subscribeToChanges).toHaveBeenCalled();
+    });
+
+    act(() => {
+      onChange({
+        sequence: 1,
+        entityType: 'PLOT',
+        changeType: 'CREATED',
+        entityId: 2,
+        data: { ...mockPlots[0], id: 2, name: 'Herb Row' }
+      });
+    });
+
+    await waitFor(() => {
+      expect(screen.getByText('🧱 Herb Row')).toBeInTheDocument();
+    });
+    expect(api.getDashboard).toHaveBeenCalledTimes(1);
   });
 });
@@ -1,10 +1,8 @@
 import React, { useEffect, useState } from 'react';
 import { useNavigate } from 'react-router-dom';
 import {
-  getAreas,
-  getPlots,
-  getPlants,
-  getPlantTypes,
+  getDashboard,
+  subscribeToChanges,
   addPlant,
   removePlant,
   addPlot,
@@ -12,6 +10,17 @@ import {
 } from '../api/backendApi';
 import './PlantDashboard.css';
 
+// Applies one change-feed event to a collection held in state
+function applyChange(items, change) {
+  if (change.changeType === 'DELETED') {
+    return items.filter((item) => item.id !== change.entityId);
+  }
+  if (items.some((item) => item.id === change.entityId)) {
+    return items.map((item) => (item.id === change.entityId ? { ...item, ...change.data } : item));
+  }
+  return change.changeType === 'CREATED' ? [...items, change.data] : items;
+}
+
 export default function PlantDashboard() {
   const navigate = useNavigate();
   const [areas, setAreas] = useState([]);
@@ -37,25 +46,40 @@ export default function PlantDashboard() {
   });
 
   useEffect(() => {
+    const setters = { AREA: setAreas, PLOT: setPlots, PLANT: setPlants, PLANT_TYPE: setPlantTypes };
+    let unsubscribe = null;
+    let cancelled = false;
+
     async function loadData() {
       setLoading(true);
       try {
-        const [a, p, pl, pt] = await Promise.all([
-          getAreas(),
-          getPlots(),
-          getPlants(),
-          getPlantTypes(),
-        ]);
-        setAreas(a);
-        setPlots(p);
-        setPlants(pl);
-        setPlantTypes(pt);
+        const snapshot = await getDashboard();
+        setAreas(snapshot.areas);
+        setPlots(snapshot.plots);
+        setPlants(snapshot.plants);
+        setPlantTypes(snapshot.plantTypes);
+        // Follow changes made after the snapshot instead of reloading whole collections
+        if (!cancelled) {
+          unsubscribe = subscribeToChanges(
+            snapshot.changeSequence,
+            (change) => setters[change.entityType]?.((items) => applyChange(items, change)),
+            () => {
+              // Too far behind to replay: start again from a fresh snapshot
+              if (unsubscribe) unsubscribe();
+              loadData();
+            }
+          );
+        }
       } catch (error) {
         console.error('Failed to load data:', error);
       }
       setLoading(false);
     }
     loadData();
+    return () => {
+      cancelled = true;
+      if (unsubscribe) unsubscribe();
+    };
   }, []);
 
   const getPlantType = (id) =>
@@ -67,7 +91,7 @@ export default function PlantDashboard() {
     setLoading(true);
     try {
       await removePlant(plantId);
-      setPlants(plants.filter(p => p.id !== plantId));
+      setPlants(current => current.filter(p => p.id !== plantId));
     } catch (error) {
       console.error('Failed to remove plant:', error);
       alert('Failed to remove plant');
@@ -195,7 +219,7 @@ export default function PlantDashboard() {
         plot_id: addPlantContext.plotId,
         position: selectedPosition || addPlantContext.position
       });
-      setPlants([...plants, newPlant]);
+      setPlants(current => [...current.filter(p => p.id !== newPlant.id), newPlant]);
       setShowAddDialog(false);
     } catch (error) {
       console.error('Failed to add plant:', error);
@@ -239,7 +263,7 @@ export default function PlantDashboard() {
         areaId: addPlotContext.areaId,
         name: newPlotData.name.trim()
       });
-      setPlots([...plots, newPlot]);
+      setPlots(current => [...current.filter(p => p.id !== newPlot.id), newPlot]);
       setShowAddPlotDialog(false);
     } catch (error) {
       console.error('Failed to add plot:', error);
@@ -254,7 +278,7 @@ export default function PlantDashboard() {
     setLoading(true);
     try {
       const result = await removePlot(plotId);
-      setPlots(plots.filter(p => p.id !== plotId));
+      setPlots(current => current.filter(p => p.id !== plotId));
       
       // Show success message with plant conversion info
       if (result && result.plantsConverted !== undefined) {
@@ -264,9 +288,10 @@ export default function PlantDashboard() {
         alert(`Plot "${plotName}" removed successfully.`);
       }
       
-      // Reload plants to update their plot status
-      const updatedPlants = await getPlants();
-      setPlants(updatedPlants);
+      // The plot's plants are now free-standing
+      setPlants(current => current.map(p =>
+        p.plotId === plotId ? { ...p, plotId: null, positionX: null, positionY: null } : p
+      ));
     } catch (error) {
       console.error('Failed to remove plot:', error);
       let errorMessage = 'Failed to remove plot';